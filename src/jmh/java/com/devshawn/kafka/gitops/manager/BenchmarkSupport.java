@@ -0,0 +1,38 @@
+package com.devshawn.kafka.gitops.manager;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.devshawn.kafka.gitops.config.ManagerConfig;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+
+/*
+ * Shared setup for the planner benchmarks, which diff against an in-memory ClusterState instead of a broker.
+ */
+final class BenchmarkSupport {
+
+    static {
+        // The planners log every resource at INFO, which would dominate the measurements.
+        Logger root = (Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.WARN);
+    }
+
+    private BenchmarkSupport() {
+    }
+
+    static ManagerConfig buildManagerConfig() {
+        return new ManagerConfig.Builder()
+                .setVerboseRequested(false)
+                .setDeleteDisabled(false)
+                .setIncludeUnchangedEnabled(false)
+                .setSkipAclsDisabled(false)
+                .setSkipTopicsDisabled(false)
+                .setManagedPrincipalsOnly(false)
+                .setFullPlanRequested(false)
+                .setStateFile(new File("state.yaml"))
+                .setBatchSize(500)
+                .setMaxInFlightRequests(5)
+                .build();
+    }
+}
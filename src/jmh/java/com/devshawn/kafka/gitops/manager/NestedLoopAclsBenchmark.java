@@ -0,0 +1,67 @@
+package com.devshawn.kafka.gitops.manager;
+
+import com.devshawn.kafka.gitops.domain.state.AclDetails;
+import org.apache.kafka.common.acl.AclBinding;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Baseline for PlanAclsBenchmark: the pairwise equalsAclBinding diff PlanManager#planAcls used before it was
+ * hash indexed. It stops at 10k ACLs because 100k needs billions of comparisons per plan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class NestedLoopAclsBenchmark {
+
+    @Param({"1000", "10000"})
+    private int aclCount;
+
+    private Map<String, AclDetails> desiredAcls;
+    private List<AclBinding> currentAcls;
+
+    @Setup
+    public void setup() {
+        currentAcls = new ArrayList<>();
+        desiredAcls = new LinkedHashMap<>();
+        for (int i = 0; i < aclCount; i++) {
+            currentAcls.add(PlanAclsBenchmark.buildAcl(i).toAclBinding());
+            int desired = i + aclCount / 10;
+            desiredAcls.put(String.format("service-%s", desired), PlanAclsBenchmark.buildAcl(desired));
+        }
+    }
+
+    @Benchmark
+    public int nestedLoop() {
+        int matched = 0;
+        for (AclBinding acl : currentAcls) {
+            if (desiredAcls.values().stream().anyMatch(it -> it.equalsAclBinding(acl))) {
+                matched++;
+            }
+        }
+        for (AclDetails aclDetails : desiredAcls.values()) {
+            if (currentAcls.stream().anyMatch(aclDetails::equalsAclBinding)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+}
@@ -0,0 +1,70 @@
+package com.devshawn.kafka.gitops.manager;
+
+import com.devshawn.kafka.gitops.domain.cluster.ClusterState;
+import com.devshawn.kafka.gitops.domain.plan.DesiredPlan;
+import com.devshawn.kafka.gitops.domain.state.AclDetails;
+import com.devshawn.kafka.gitops.domain.state.DesiredState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Measures PlanManager#planAcls; compare with NestedLoopAclsBenchmark for the pairwise diff it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class PlanAclsBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int aclCount;
+
+    private PlanManager planManager;
+    private DesiredState desiredState;
+    private ClusterState clusterState;
+
+    @Setup
+    public void setup() {
+        // One tenth of the current ACLs is removed and one tenth of the desired ACLs is new.
+        ClusterState.Builder currentState = new ClusterState.Builder();
+        DesiredState.Builder builder = new DesiredState.Builder();
+        for (int i = 0; i < aclCount; i++) {
+            currentState.addAcls(buildAcl(i));
+            int desired = i + aclCount / 10;
+            builder.putAcls(String.format("service-%s", desired), buildAcl(desired));
+        }
+        desiredState = builder.build();
+        clusterState = currentState.build();
+        planManager = new PlanManager(BenchmarkSupport.buildManagerConfig());
+    }
+
+    @Benchmark
+    public DesiredPlan hashJoin() {
+        DesiredPlan.Builder desiredPlan = new DesiredPlan.Builder();
+        planManager.planAcls(desiredState, clusterState, desiredPlan);
+        return desiredPlan.build();
+    }
+
+    static AclDetails buildAcl(int index) {
+        return new AclDetails.Builder()
+                .setName(String.format("topic-%s", index))
+                .setType("TOPIC")
+                .setPattern("LITERAL")
+                .setPrincipal(String.format("User:service-%s", index % 1000))
+                .setOperation(index % 2 == 0 ? "READ" : "WRITE")
+                .build();
+    }
+}
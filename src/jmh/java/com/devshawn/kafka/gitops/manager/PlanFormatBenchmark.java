@@ -0,0 +1,73 @@
+package com.devshawn.kafka.gitops.manager;
+
+import com.devshawn.kafka.gitops.domain.plan.AclPlan;
+import com.devshawn.kafka.gitops.domain.plan.DesiredPlan;
+import com.devshawn.kafka.gitops.enums.PlanAction;
+import com.devshawn.kafka.gitops.enums.PlanFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Measures encoding and decoding a plan of 100k ACLs in each plan format; the encoded size of each format is
+ * printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class PlanFormatBenchmark {
+
+    private static final int ACL_COUNT = 100_000;
+
+    @Param({"JSON", "SMILE"})
+    private PlanFormat format;
+
+    private DesiredPlan desiredPlan;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() throws IOException {
+        DesiredPlan.Builder builder = new DesiredPlan.Builder();
+        for (int i = 0; i < ACL_COUNT; i++) {
+            builder.addAclPlans(new AclPlan.Builder()
+                    .setName(String.format("service-%s", i))
+                    .setAclDetails(PlanAclsBenchmark.buildAcl(i))
+                    .setAction(PlanAction.ADD)
+                    .build());
+        }
+        desiredPlan = builder.build();
+        encoded = encode();
+        System.out.printf("%n%s plan of %s ACLs: %s bytes%n", format, ACL_COUNT, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        PlanCodec.write(format, outputStream, desiredPlan, false);
+        return outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public int decode() throws IOException {
+        AtomicInteger count = new AtomicInteger();
+        PlanCodec.read(new ByteArrayInputStream(encoded), null, it -> count.incrementAndGet());
+        return count.get();
+    }
+}
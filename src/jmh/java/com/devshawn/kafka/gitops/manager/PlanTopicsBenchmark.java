@@ -0,0 +1,73 @@
+package com.devshawn.kafka.gitops.manager;
+
+import com.devshawn.kafka.gitops.domain.cluster.ClusterState;
+import com.devshawn.kafka.gitops.domain.plan.DesiredPlan;
+import com.devshawn.kafka.gitops.domain.state.DesiredState;
+import com.devshawn.kafka.gitops.domain.state.TopicDetails;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Regression benchmark for PlanManager#planTopics on large clusters. Every topic carries a few dynamic configs
+ * and every tenth desired topic changes one of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class PlanTopicsBenchmark {
+
+    private static final int CONFIGS_PER_TOPIC = 6;
+
+    @Param({"5000", "50000"})
+    private int topicCount;
+
+    private PlanManager planManager;
+    private DesiredState desiredState;
+    private ClusterState clusterState;
+
+    @Setup
+    public void setup() {
+        ClusterState.Builder currentState = new ClusterState.Builder();
+        DesiredState.Builder builder = new DesiredState.Builder();
+        for (int i = 0; i < topicCount; i++) {
+            String name = String.format("topic-%s", i);
+            currentState.addTopics(name);
+
+            Map<String, String> configs = new LinkedHashMap<>();
+            TopicDetails.Builder topicDetails = new TopicDetails.Builder().setPartitions(6).setReplication(3);
+            for (int c = 0; c < CONFIGS_PER_TOPIC; c++) {
+                String key = String.format("config.%s", c);
+                configs.put(key, "1000");
+                topicDetails.putConfigs(key, i % 10 == 0 && c == 0 ? "2000" : "1000");
+            }
+            currentState.putTopicConfigs(name, configs);
+            builder.putTopics(name, topicDetails.build());
+        }
+        desiredState = builder.build();
+        clusterState = currentState.build();
+        planManager = new PlanManager(BenchmarkSupport.buildManagerConfig());
+    }
+
+    @Benchmark
+    public DesiredPlan planTopics() {
+        DesiredPlan.Builder desiredPlan = new DesiredPlan.Builder();
+        planManager.planTopics(desiredState, clusterState, desiredPlan);
+        return desiredPlan.build();
+    }
+}
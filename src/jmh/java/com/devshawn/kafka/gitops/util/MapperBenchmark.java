@@ -0,0 +1,97 @@
+package com.devshawn.kafka.gitops.util;
+
+import com.devshawn.kafka.gitops.domain.plan.AclPlan;
+import com.devshawn.kafka.gitops.domain.plan.DesiredPlan;
+import com.devshawn.kafka.gitops.domain.state.AclDetails;
+import com.devshawn.kafka.gitops.domain.state.DesiredStateFile;
+import com.devshawn.kafka.gitops.enums.PlanAction;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Compares the shared MapperUtil readers against a mapper built per parse without Blackbird, which is what
+ * ParserService and PlanManager did before, on a 50k-topic state file and a 100k-entry plan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final int TOPIC_COUNT = 50_000;
+    private static final int PLAN_ENTRY_COUNT = 100_000;
+
+    private byte[] stateFile;
+    private byte[] planFile;
+
+    @Setup
+    public void setup() throws IOException {
+        StringBuilder yaml = new StringBuilder("topics:\n");
+        for (int i = 0; i < TOPIC_COUNT; i++) {
+            yaml.append(String.format("  topic-%s:%n    partitions: 6%n    replication: 3%n    configs:%n      cleanup.policy: compact%n", i));
+        }
+        stateFile = yaml.toString().getBytes(StandardCharsets.UTF_8);
+
+        DesiredPlan.Builder desiredPlan = new DesiredPlan.Builder();
+        for (int i = 0; i < PLAN_ENTRY_COUNT; i++) {
+            desiredPlan.addAclPlans(new AclPlan.Builder()
+                    .setName(String.format("service-%s", i))
+                    .setAclDetails(new AclDetails.Builder()
+                            .setName(String.format("topic-%s", i))
+                            .setType("TOPIC")
+                            .setPattern("LITERAL")
+                            .setPrincipal(String.format("User:service-%s", i % 1000))
+                            .setOperation("READ")
+                            .build())
+                    .setAction(PlanAction.ADD)
+                    .build());
+        }
+        planFile = MapperUtil.getJsonMapper().writeValueAsBytes(desiredPlan.build());
+    }
+
+    @Benchmark
+    public DesiredStateFile parseStateFilePerMapper() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper(new YAMLFactory())
+                .enable(DeserializationFeature.FAIL_ON_READING_DUP_TREE_KEY)
+                .enable(JsonParser.Feature.STRICT_DUPLICATE_DETECTION)
+                .registerModule(new Jdk8Module());
+        return objectMapper.readValue(stateFile, DesiredStateFile.class);
+    }
+
+    @Benchmark
+    public DesiredStateFile parseStateFileShared() throws IOException {
+        return MapperUtil.getStateFileReader().readValue(stateFile);
+    }
+
+    @Benchmark
+    public DesiredPlan readPlanPerMapper() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .registerModule(new Jdk8Module());
+        return objectMapper.readValue(planFile, DesiredPlan.class);
+    }
+
+    @Benchmark
+    public DesiredPlan readPlanShared() throws IOException {
+        return MapperUtil.getJsonMapper().readValue(planFile, DesiredPlan.class);
+    }
+}
@@ -3,6 +3,7 @@ package com.devshawn.kafka.gitops;
 import com.devshawn.kafka.gitops.cli.AccountCommand;
 import com.devshawn.kafka.gitops.cli.ApplyCommand;
 import com.devshawn.kafka.gitops.cli.PlanCommand;
+import com.devshawn.kafka.gitops.cli.SnapshotCommand;
 import com.devshawn.kafka.gitops.cli.ValidateCommand;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
@@ -18,6 +19,7 @@ import java.util.concurrent.Callable;
                 AccountCommand.class,
                 ApplyCommand.class,
                 PlanCommand.class,
+                SnapshotCommand.class,
                 ValidateCommand.class
         },
         description = "Manage Kafka resources with a desired state file.")
@@ -40,6 +42,22 @@ public class MainCommand implements Callable<Integer> {
     @Option(names = {"--skip-topics"}, description = "Do not take topics into account during plans or applies.")
     private boolean skipTopics = false;
 
+    @Option(names = {"--managed-principals-only"},
+            description = "Only fetch and plan ACLs of principals defined in the desired state file. ACLs of removed principals are not deleted.")
+    private boolean managedPrincipalsOnly = false;
+
+    @Option(names = {"--cache-dir"}, paramLabel = "<dir>",
+            description = "Directory for caches that speed up repeated runs.")
+    private File cacheDirectory;
+
+    @Option(names = {"--batch-size"}, paramLabel = "<size>", defaultValue = "500",
+            description = "Maximum number of resources sent to Kafka in a single admin request.")
+    private int batchSize;
+
+    @Option(names = {"--max-in-flight"}, paramLabel = "<count>", defaultValue = "5",
+            description = "Maximum number of Kafka admin requests in flight at the same time.")
+    private int maxInFlightRequests;
+
     @Option(names = {"-h", "--help"}, usageHelp = true, description = "Display this help message.")
     private boolean helpRequested = false;
 
@@ -87,6 +105,22 @@ public class MainCommand implements Callable<Integer> {
         return skipTopics;
     }
 
+    public boolean isManagedPrincipalsOnly() {
+        return managedPrincipalsOnly;
+    }
+
+    public File getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getMaxInFlightRequests() {
+        return maxInFlightRequests;
+    }
+
     public static void main(String[] args) {
         int exitCode = new CommandLine(new MainCommand()).execute(args);
         System.exit(exitCode);
@@ -5,9 +5,12 @@ import ch.qos.logback.classic.Logger;
 import com.devshawn.kafka.gitops.config.KafkaGitopsConfig;
 import com.devshawn.kafka.gitops.config.KafkaGitopsConfigLoader;
 import com.devshawn.kafka.gitops.config.ManagerConfig;
+import com.devshawn.kafka.gitops.domain.cache.PlanCache;
+import com.devshawn.kafka.gitops.domain.cluster.ClusterState;
 import com.devshawn.kafka.gitops.domain.confluent.ServiceAccount;
 import com.devshawn.kafka.gitops.domain.options.GetAclOptions;
 import com.devshawn.kafka.gitops.domain.plan.DesiredPlan;
+import com.devshawn.kafka.gitops.domain.plan.PlanOverview;
 import com.devshawn.kafka.gitops.domain.state.AclDetails;
 import com.devshawn.kafka.gitops.domain.state.CustomAclDetails;
 import com.devshawn.kafka.gitops.domain.state.DesiredState;
@@ -26,51 +29,84 @@ import com.devshawn.kafka.gitops.exception.ServiceAccountNotFoundException;
 import com.devshawn.kafka.gitops.exception.ValidationException;
 import com.devshawn.kafka.gitops.manager.ApplyManager;
 import com.devshawn.kafka.gitops.manager.PlanManager;
+import com.devshawn.kafka.gitops.manager.PlanSource;
+import com.devshawn.kafka.gitops.service.ClusterSnapshotService;
+import com.devshawn.kafka.gitops.service.ClusterStateService;
+import com.devshawn.kafka.gitops.service.ClusterStateSource;
+import com.devshawn.kafka.gitops.service.ConfluentCloudApiService;
 import com.devshawn.kafka.gitops.service.ConfluentCloudService;
 import com.devshawn.kafka.gitops.service.KafkaService;
 import com.devshawn.kafka.gitops.service.ParserService;
+import com.devshawn.kafka.gitops.service.PlanCacheService;
 import com.devshawn.kafka.gitops.service.RoleService;
+import com.devshawn.kafka.gitops.service.ServiceAccountProvider;
+import com.devshawn.kafka.gitops.service.SnapshotClusterStateSource;
 import com.devshawn.kafka.gitops.util.LogUtil;
+import com.devshawn.kafka.gitops.util.MapperUtil;
+import com.devshawn.kafka.gitops.util.PlanUtil;
+import com.devshawn.kafka.gitops.util.RateLimiter;
 import com.devshawn.kafka.gitops.util.StateUtil;
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
 
-public class StateManager {
+public class StateManager implements AutoCloseable {
 
     private final ManagerConfig managerConfig;
     private final ParserService parserService;
     private final RoleService roleService;
-    private final ConfluentCloudService confluentCloudService;
+    private final ServiceAccountProvider serviceAccountProvider;
+    private final KafkaService kafkaService;
+    private final ClusterStateService clusterStateService;
+    private final ClusterSnapshotService clusterSnapshotService;
+    private final ClusterStateSource clusterStateSource;
+    private final PlanCacheService planCacheService;
 
     private final PlanManager planManager;
     private final ApplyManager applyManager;
 
     private boolean describeAclEnabled = false;
+    private Map<String, ServiceAccount> serviceAccountIndex;
 
     public StateManager(ManagerConfig managerConfig, ParserService parserService) {
         initializeLogger(managerConfig.isVerboseRequested());
-        ObjectMapper objectMapper = initializeObjectMapper();
+        ObjectMapper objectMapper = MapperUtil.getJsonMapper();
         KafkaGitopsConfig config = KafkaGitopsConfigLoader.load();
-        KafkaService kafkaService = new KafkaService(config);
 
         this.managerConfig = managerConfig;
         this.parserService = parserService;
         this.roleService = new RoleService();
-        this.confluentCloudService = new ConfluentCloudService(objectMapper);
-        this.planManager = new PlanManager(managerConfig, kafkaService, objectMapper);
+        this.serviceAccountProvider = ConfluentCloudApiService.fromEnvironment(objectMapper)
+                .orElseGet(() -> new ConfluentCloudService(objectMapper));
+        this.kafkaService = new KafkaService(config);
+        this.clusterStateService = new ClusterStateService(managerConfig, kafkaService);
+        this.clusterSnapshotService = new ClusterSnapshotService(objectMapper);
+        this.clusterStateSource = managerConfig.getSnapshotFile()
+                .<ClusterStateSource>map(file -> new SnapshotClusterStateSource(managerConfig, clusterSnapshotService, file))
+                .orElse(clusterStateService);
+        this.planCacheService = new PlanCacheService(managerConfig, objectMapper);
+        this.planManager = new PlanManager(managerConfig);
         this.applyManager = new ApplyManager(managerConfig, kafkaService);
     }
 
+    @Override
+    public void close() {
+        kafkaService.close();
+    }
+
     public DesiredStateFile getAndValidateStateFile() {
         DesiredStateFile desiredStateFile = parserService.parseStateFile();
         validateTopics(desiredStateFile);
@@ -80,7 +116,9 @@ public class StateManager {
     }
 
     public DesiredPlan plan() {
-        DesiredPlan desiredPlan = generatePlan();
+        GeneratedPlan generatedPlan = generatePlan();
+        DesiredPlan desiredPlan = generatedPlan.plan();
+        savePlanCache(generatedPlan);
         planManager.writePlanToFile(desiredPlan);
         planManager.validatePlanHasChanges(desiredPlan,
                 managerConfig.isDeleteDisabled(),
@@ -89,66 +127,163 @@ public class StateManager {
         return desiredPlan;
     }
 
-    private DesiredPlan generatePlan() {
+    private GeneratedPlan generatePlan() {
         DesiredState desiredState = getDesiredState();
+        PlanCache planCache = planCacheService.load();
+        ClusterState clusterState = clusterStateSource.fetchClusterState(desiredState, planCacheService.isTopicConfigCached(planCache, desiredState));
+        clusterState = planCacheService.applyCache(planCache, desiredState, clusterState);
         DesiredPlan.Builder desiredPlan = new DesiredPlan.Builder();
         if (!managerConfig.isSkipAclsDisabled()) {
-            planManager.planAcls(desiredState, desiredPlan);
+            if (managerConfig.isManagedPrincipalsOnly()) {
+                LogUtil.printManagedPrincipalsWarning();
+            }
+            planManager.planAcls(desiredState, clusterState, desiredPlan);
         }
 
         if (!managerConfig.isSkipTopicsDisabled()) {
-            planManager.planTopics(desiredState, desiredPlan);
+            planManager.planTopics(desiredState, clusterState, desiredPlan);
+        }
+
+        return new GeneratedPlan(desiredState, clusterState, desiredPlan.build());
+    }
+
+    private record GeneratedPlan(DesiredState desiredState, ClusterState clusterState, DesiredPlan plan) {
+    }
+
+    /*
+     * The cache is only written after a live fetch: topics planned against a snapshot may differ from the
+     * cluster, so they must not be skipped by later plans.
+     */
+    private void savePlanCache(GeneratedPlan generatedPlan) {
+        if (!managerConfig.isSkipTopicsDisabled() && managerConfig.getSnapshotFile().isEmpty()) {
+            planCacheService.save(generatedPlan.desiredState(), generatedPlan.clusterState(), generatedPlan.plan());
         }
+    }
 
-        return desiredPlan.build();
+    public ClusterState snapshot(File snapshotFile) {
+        ClusterState clusterState = clusterStateService.fetchFullClusterState();
+        clusterSnapshotService.writeSnapshot(snapshotFile, clusterState);
+        return clusterState;
     }
 
-    public DesiredPlan apply() {
-        DesiredPlan desiredPlan = planManager.readPlanFromFile();
-        if (desiredPlan == null) {
-            desiredPlan = generatePlan();
+    /*
+     * A plan file is streamed rather than loaded: one pass validates it and counts its changes, then topics and
+     * ACLs are each applied in a further pass. A plan generated here only updates the plan cache once it has
+     * been applied without errors.
+     */
+    public PlanOverview apply() {
+        PlanSource planSource = planManager.readPlanFromFile();
+        GeneratedPlan generatedPlan = null;
+        if (planSource == null) {
+            generatedPlan = generatePlan();
+            planSource = PlanSource.of(generatedPlan.plan());
         }
 
-        planManager.validatePlanHasChanges(desiredPlan, managerConfig.isDeleteDisabled(),
+        PlanOverview planOverview = PlanUtil.getOverview(planSource, managerConfig.isDeleteDisabled(),
                 managerConfig.isSkipAclsDisabled(), managerConfig.isSkipTopicsDisabled());
+        planManager.validatePlanHasChanges(planOverview);
 
         if (!managerConfig.isSkipTopicsDisabled()) {
-            applyManager.applyTopics(desiredPlan);
+            applyManager.applyTopics(planSource);
         }
 
         if (!managerConfig.isSkipAclsDisabled()) {
-            applyManager.applyAcls(desiredPlan);
+            applyManager.applyAcls(planSource);
         }
 
-        return desiredPlan;
+        if (generatedPlan != null) {
+            savePlanCache(generatedPlan);
+        }
+        return planOverview;
+    }
+
+    public int getRetryCount() {
+        return kafkaService.getRetryCount();
     }
 
+    public long getThrottledMillis() {
+        return kafkaService.getThrottledMillis();
+    }
+
+    /*
+     * Missing accounts are created on virtual threads, at most --max-in-flight at a time and optionally at a fixed
+     * rate. One failed account does not stop the others. Results are printed in state file order once all
+     * requests are done.
+     */
     public void createServiceAccounts() {
         DesiredStateFile desiredStateFile = parserService.parseStateFile();
-        List<ServiceAccount> serviceAccounts = confluentCloudService.getServiceAccounts();
-        AtomicInteger count = new AtomicInteger();
-        if (isConfluentCloudEnabled(desiredStateFile)) {
-            desiredStateFile.getServices().forEach((name, service) ->
-                    createServiceAccount(name, serviceAccounts, count, false));
-
-            desiredStateFile.getUsers().forEach((name, user) ->
-                    createServiceAccount(name, serviceAccounts, count, true));
-        } else {
+        if (!isConfluentCloudEnabled(desiredStateFile)) {
             throw new ConfluentCloudException("Confluent Cloud must be enabled in the state file to use this command.");
         }
 
-        if (count.get() == 0) {
+        Map<String, ServiceAccount> serviceAccounts = getServiceAccountIndex();
+        Map<String, AccountRequest> missingAccounts = new LinkedHashMap<>();
+        desiredStateFile.getServices().keySet().forEach(name -> missingAccounts.putIfAbsent(name, new AccountRequest(name, false)));
+        desiredStateFile.getUsers().keySet().forEach(name -> missingAccounts.putIfAbsent(String.format("user-%s", name), new AccountRequest(name, true)));
+        missingAccounts.keySet().removeAll(serviceAccounts.keySet());
+
+        if (missingAccounts.isEmpty()) {
             LogUtil.printSimpleSuccess("No service accounts were created as there are no new service accounts.");
+            return;
+        }
+
+        Semaphore permits = new Semaphore(managerConfig.getMaxInFlightRequests());
+        RateLimiter rateLimiter = managerConfig.getAccountCreationRateLimit().map(RateLimiter::new).orElse(null);
+        Map<String, Future<ServiceAccount>> results = new LinkedHashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            missingAccounts.forEach((fullName, request) -> results.put(fullName, executor.submit(() -> {
+                permits.acquire();
+                try {
+                    if (rateLimiter != null) {
+                        rateLimiter.acquire();
+                    }
+                    return serviceAccountProvider.createServiceAccount(request.name(), request.isUser());
+                } finally {
+                    permits.release();
+                }
+            })));
+        }
+
+        int failures = 0;
+        for (Map.Entry<String, Future<ServiceAccount>> result : results.entrySet()) {
+            Future<ServiceAccount> future = result.getValue();
+            if (future.state() == Future.State.SUCCESS) {
+                serviceAccounts.put(result.getKey(), future.resultNow());
+                LogUtil.printSimpleSuccess(String.format("Successfully created service account: %s", future.resultNow().getName()));
+            } else {
+                failures++;
+                LogUtil.printSimpleError(future.state() == Future.State.FAILED
+                        ? future.exceptionNow().getMessage()
+                        : String.format("Creating service account %s was interrupted.", result.getKey()));
+            }
+        }
+
+        if (failures > 0) {
+            throw new ConfluentCloudException(String.format("%s of %s service accounts could not be created.", failures, results.size()));
         }
     }
 
-    private void createServiceAccount(String name, List<ServiceAccount> serviceAccounts, AtomicInteger count, boolean isUser) {
-        String fullName = isUser ? String.format("user-%s", name) : name;
-        if (serviceAccounts.stream().noneMatch(it -> it.getName().equals(fullName))) {
-            ServiceAccount serviceAccount = confluentCloudService.createServiceAccount(name, isUser);
-            LogUtil.printSimpleSuccess(String.format("Successfully created service account: %s", serviceAccount.getName()));
-            count.getAndIncrement();
+    private record AccountRequest(String name, boolean isUser) {
+    }
+
+    /*
+     * Listing service accounts runs the ccloud tool, so the list is fetched once per run and indexed by name. The
+     * first account wins if several share a name. Accounts created during the run are added to the index.
+     */
+    private Map<String, ServiceAccount> getServiceAccountIndex() {
+        if (serviceAccountIndex == null) {
+            serviceAccountIndex = new HashMap<>();
+            serviceAccountProvider.getServiceAccounts().forEach(it -> serviceAccountIndex.putIfAbsent(it.getName(), it));
         }
+        return serviceAccountIndex;
+    }
+
+    private String getServiceAccountId(String serviceAccountName) {
+        ServiceAccount serviceAccount = getServiceAccountIndex().get(serviceAccountName);
+        if (serviceAccount == null) {
+            throw new ServiceAccountNotFoundException(serviceAccountName);
+        }
+        return serviceAccount.getId();
     }
 
     private DesiredState getDesiredState() {
@@ -183,13 +318,8 @@ public class StateManager {
     }
 
     private void generateConfluentCloudServiceAcls(DesiredState.Builder desiredState, DesiredStateFile desiredStateFile) {
-        List<ServiceAccount> serviceAccounts = confluentCloudService.getServiceAccounts();
         desiredStateFile.getServices().forEach((name, service) -> {
-            String serviceAccountId = serviceAccounts.stream()
-                    .filter(it -> it.getName().equals(name))
-                    .findFirst()
-                    .orElseThrow(() -> new ServiceAccountNotFoundException(name))
-                    .getId();
+            String serviceAccountId = getServiceAccountId(name);
 
             AtomicInteger index = new AtomicInteger();
             for (AclDetails.Builder builder : service.getAcls(buildGetAclOptions(name))) {
@@ -217,13 +347,9 @@ public class StateManager {
     }
 
     private void generateConfluentCloudUserAcls(DesiredState.Builder desiredState, DesiredStateFile desiredStateFile) {
-        List<ServiceAccount> serviceAccounts = confluentCloudService.getServiceAccounts();
         desiredStateFile.getUsers().forEach((name, user) -> {
             AtomicInteger index = new AtomicInteger();
-            String serviceAccountName = String.format("user-%s", name);
-
-            Optional<ServiceAccount> serviceAccount = serviceAccounts.stream().filter(it -> it.getName().equals(serviceAccountName)).findFirst();
-            String serviceAccountId = serviceAccount.orElseThrow(() -> new ServiceAccountNotFoundException(serviceAccountName)).getId();
+            String serviceAccountId = getServiceAccountId(String.format("user-%s", name));
 
             user.getRoles().forEach(role -> {
                 List<AclDetails.Builder> acls = roleService.getAcls(role, principal(serviceAccountId));
@@ -349,7 +475,8 @@ public class StateManager {
         if (defaultReplication.isEmpty()) {
             desiredStateFile.getTopics().forEach((name, details) -> {
                 if (details.getReplication().isEmpty()) {
-                    throw new ValidationException(String.format("Not set: [replication] in state file definition: topics -> %s", name));
+                    String source = parserService.getSourceFile("topics", name).map(it -> String.format(" (file: %s)", it)).orElse("");
+                    throw new ValidationException(String.format("Not set: [replication] in state file definition: topics -> %s%s", name, source));
                 }
             });
         } else {
@@ -366,13 +493,6 @@ public class StateManager {
                 .orElse(false);
     }
 
-    private static ObjectMapper initializeObjectMapper() {
-        return new ObjectMapper()
-        .enable(JsonParser.Feature.ALLOW_UNQUOTED_FIELD_NAMES)
-        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-        .registerModule(new Jdk8Module());
-    }
-
     private static void initializeLogger(boolean verbose) {
         Logger root = (Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
         Logger kafka = (Logger) LoggerFactory.getLogger("org.apache.kafka");
@@ -17,15 +17,18 @@ import java.util.concurrent.Callable;
 @CommandLine.Command(name = "account", description = "Create Confluent Cloud service accounts.")
 public class AccountCommand implements Callable<Integer> {
 
+    @CommandLine.Option(names = {"--rate-limit"}, paramLabel = "<count>",
+            description = "Maximum number of service accounts created per second.")
+    private Integer rateLimit;
+
     @CommandLine.ParentCommand
     private MainCommand parent;
 
     @Override
     public Integer call() {
-        try {
-            System.out.println("Creating service accounts...\n");
-            ParserService parserService = new ParserService(parent.getStateFile());
-            StateManager stateManager = new StateManager(generateStateManagerConfig(), parserService);
+        System.out.println("Creating service accounts...\n");
+        ParserService parserService = new ParserService(parent.getStateFile(), parent.getCacheDirectory());
+        try (StateManager stateManager = new StateManager(generateStateManagerConfig(), parserService)) {
             stateManager.createServiceAccounts();
             return 0;
         } catch (MissingConfigurationException | ConfluentCloudException ex) {
@@ -47,8 +50,14 @@ public class AccountCommand implements Callable<Integer> {
                 .setIncludeUnchangedEnabled(false)
                 .setSkipAclsDisabled(parent.areAclsDisabled())
                 .setSkipTopicsDisabled(parent.areTopicsDisabled())
+                .setManagedPrincipalsOnly(parent.isManagedPrincipalsOnly())
+                .setFullPlanRequested(false)
+                .setNullableCacheDirectory(parent.getCacheDirectory())
                 .setNullableConfigFile(parent.getConfigFile())
                 .setStateFile(parent.getStateFile())
+                .setBatchSize(parent.getBatchSize())
+                .setMaxInFlightRequests(parent.getMaxInFlightRequests())
+                .setNullableAccountCreationRateLimit(rateLimit)
                 .build();
     }
 }
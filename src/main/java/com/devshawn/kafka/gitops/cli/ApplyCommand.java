@@ -3,7 +3,7 @@ package com.devshawn.kafka.gitops.cli;
 import com.devshawn.kafka.gitops.MainCommand;
 import com.devshawn.kafka.gitops.StateManager;
 import com.devshawn.kafka.gitops.config.ManagerConfig;
-import com.devshawn.kafka.gitops.domain.plan.DesiredPlan;
+import com.devshawn.kafka.gitops.domain.plan.PlanOverview;
 import com.devshawn.kafka.gitops.exception.KafkaExecutionException;
 import com.devshawn.kafka.gitops.exception.MissingConfigurationException;
 import com.devshawn.kafka.gitops.exception.PlanIsUpToDateException;
@@ -11,7 +11,6 @@ import com.devshawn.kafka.gitops.exception.ReadPlanInputException;
 import com.devshawn.kafka.gitops.exception.ValidationException;
 import com.devshawn.kafka.gitops.service.ParserService;
 import com.devshawn.kafka.gitops.util.LogUtil;
-import com.devshawn.kafka.gitops.util.PlanUtil;
 import picocli.CommandLine;
 
 import java.io.File;
@@ -29,15 +28,12 @@ public class ApplyCommand implements Callable<Integer> {
 
     @Override
     public Integer call() {
-        try {
-            System.out.println("Executing apply...\n");
-            ParserService parserService = new ParserService(parent.getStateFile());
-            StateManager stateManager = new StateManager(generateStateManagerConfig(), parserService);
-            DesiredPlan desiredPlan = stateManager.apply();
-            LogUtil.printApplyOverview(PlanUtil.getOverview(desiredPlan,
-                    parent.isDeleteDisabled(),
-                    parent.areAclsDisabled(),
-                    parent.areTopicsDisabled()));
+        System.out.println("Executing apply...\n");
+        ParserService parserService = new ParserService(parent.getStateFile(), parent.getCacheDirectory());
+        try (StateManager stateManager = new StateManager(generateStateManagerConfig(), parserService)) {
+            PlanOverview planOverview = stateManager.apply();
+            LogUtil.printApplyRetries(stateManager.getRetryCount(), stateManager.getThrottledMillis());
+            LogUtil.printApplyOverview(planOverview);
             return 0;
         } catch (PlanIsUpToDateException ex) {
             LogUtil.printNoChangesMessage();
@@ -59,8 +55,13 @@ public class ApplyCommand implements Callable<Integer> {
                 .setIncludeUnchangedEnabled(false)
                 .setSkipAclsDisabled(parent.areAclsDisabled())
                 .setSkipTopicsDisabled(parent.areTopicsDisabled())
+                .setManagedPrincipalsOnly(parent.isManagedPrincipalsOnly())
+                .setFullPlanRequested(true)
+                .setNullableCacheDirectory(parent.getCacheDirectory())
                 .setNullableConfigFile(parent.getConfigFile())
                 .setStateFile(parent.getStateFile())
+                .setBatchSize(parent.getBatchSize())
+                .setMaxInFlightRequests(parent.getMaxInFlightRequests())
                 .setNullablePlanFile(planFile)
                 .build();
     }
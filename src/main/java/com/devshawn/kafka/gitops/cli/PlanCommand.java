@@ -4,9 +4,11 @@ import com.devshawn.kafka.gitops.MainCommand;
 import com.devshawn.kafka.gitops.StateManager;
 import com.devshawn.kafka.gitops.config.ManagerConfig;
 import com.devshawn.kafka.gitops.domain.plan.DesiredPlan;
+import com.devshawn.kafka.gitops.enums.PlanFormat;
 import com.devshawn.kafka.gitops.exception.KafkaExecutionException;
 import com.devshawn.kafka.gitops.exception.MissingConfigurationException;
 import com.devshawn.kafka.gitops.exception.PlanIsUpToDateException;
+import com.devshawn.kafka.gitops.exception.ReadSnapshotInputException;
 import com.devshawn.kafka.gitops.exception.ValidationException;
 import com.devshawn.kafka.gitops.exception.WritePlanOutputException;
 import com.devshawn.kafka.gitops.service.ParserService;
@@ -23,6 +25,21 @@ public class PlanCommand implements Callable<Integer> {
             description = "Specify the output file for the plan.")
     private File outputFile;
 
+    @CommandLine.Option(names = {"--format"}, paramLabel = "<format>", defaultValue = "JSON",
+            description = "Format of the plan file: ${COMPLETION-CANDIDATES}. SMILE is a gzip-compressed binary format; apply detects it automatically.")
+    private PlanFormat planFormat;
+
+    @CommandLine.Option(names = {"--from-snapshot"}, paramLabel = "<file>",
+            description = "Plan against a cluster snapshot file instead of the live cluster.")
+    private File snapshotFile;
+
+    @CommandLine.Option(names = {"--full"}, description = "Ignore the plan cache and compare every resource with the cluster.")
+    private boolean fullPlanRequested = false;
+
+    @CommandLine.Option(names = {"--trust-config-cache"},
+            description = "Reuse topic configs from the plan cache instead of describing them. Config changes made outside of kafka-gitops are not detected for cached topics.")
+    private boolean configCacheTrusted = false;
+
     @CommandLine.Option(names = {"--include-unchanged"}, description = "Include unchanged resources in the plan file.")
     private boolean includeUnchanged = false;
 
@@ -31,17 +48,16 @@ public class PlanCommand implements Callable<Integer> {
 
     @Override
     public Integer call() {
-        try {
-            System.out.println("Generating execution plan...\n");
-            ParserService parserService = new ParserService(parent.getStateFile());
-            StateManager stateManager = new StateManager(generateStateManagerConfig(), parserService);
+        System.out.println("Generating execution plan...\n");
+        ParserService parserService = new ParserService(parent.getStateFile(), parent.getCacheDirectory());
+        try (StateManager stateManager = new StateManager(generateStateManagerConfig(), parserService)) {
             DesiredPlan desiredPlan = stateManager.plan();
             LogUtil.printPlan(desiredPlan, parent.isDeleteDisabled(), parent.areAclsDisabled(), parent.areTopicsDisabled());
             return 0;
         } catch (PlanIsUpToDateException ex) {
             LogUtil.printNoChangesMessage();
             return 0;
-        } catch (MissingConfigurationException ex) {
+        } catch (MissingConfigurationException | ReadSnapshotInputException ex) {
             LogUtil.printGenericError(ex);
         } catch (ValidationException ex) {
             LogUtil.printValidationResult(ex.getMessage(), false);
@@ -60,9 +76,17 @@ public class PlanCommand implements Callable<Integer> {
                 .setIncludeUnchangedEnabled(includeUnchanged)
                 .setNullableConfigFile(parent.getConfigFile())
                 .setStateFile(parent.getStateFile())
+                .setBatchSize(parent.getBatchSize())
+                .setMaxInFlightRequests(parent.getMaxInFlightRequests())
                 .setSkipAclsDisabled(parent.areAclsDisabled())
                 .setSkipTopicsDisabled(parent.areTopicsDisabled())
+                .setManagedPrincipalsOnly(parent.isManagedPrincipalsOnly())
+                .setFullPlanRequested(fullPlanRequested)
+                .setConfigCacheTrusted(configCacheTrusted)
+                .setNullableCacheDirectory(parent.getCacheDirectory())
                 .setNullablePlanFile(outputFile)
+                .setPlanFormat(planFormat)
+                .setNullableSnapshotFile(snapshotFile)
                 .build();
     }
 }
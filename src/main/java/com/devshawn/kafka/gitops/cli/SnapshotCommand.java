@@ -0,0 +1,66 @@
+package com.devshawn.kafka.gitops.cli;
+
+import com.devshawn.kafka.gitops.MainCommand;
+import com.devshawn.kafka.gitops.StateManager;
+import com.devshawn.kafka.gitops.config.ManagerConfig;
+import com.devshawn.kafka.gitops.domain.cluster.ClusterState;
+import com.devshawn.kafka.gitops.exception.ConfluentCloudException;
+import com.devshawn.kafka.gitops.exception.KafkaExecutionException;
+import com.devshawn.kafka.gitops.exception.MissingConfigurationException;
+import com.devshawn.kafka.gitops.exception.ValidationException;
+import com.devshawn.kafka.gitops.exception.WriteSnapshotOutputException;
+import com.devshawn.kafka.gitops.service.ParserService;
+import com.devshawn.kafka.gitops.util.LogUtil;
+import picocli.CommandLine;
+
+import java.io.File;
+import java.util.concurrent.Callable;
+
+@CommandLine.Command(name = "snapshot", description = "Write the current topics, topic configs and ACLs to a snapshot file.")
+public class SnapshotCommand implements Callable<Integer> {
+
+    @CommandLine.Option(names = {"-o", "--output"}, paramLabel = "<file>", required = true,
+            description = "Specify the output file for the snapshot.")
+    private File outputFile;
+
+    @CommandLine.ParentCommand
+    private MainCommand parent;
+
+    @Override
+    public Integer call() {
+        System.out.println("Creating cluster snapshot...\n");
+        ParserService parserService = new ParserService(parent.getStateFile(), parent.getCacheDirectory());
+        try (StateManager stateManager = new StateManager(generateStateManagerConfig(), parserService)) {
+            ClusterState clusterState = stateManager.snapshot(outputFile);
+            LogUtil.printSimpleSuccess(String.format("Wrote a snapshot of %s topics and %s ACLs to %s.",
+                    clusterState.getTopics().size(), clusterState.getAcls().size(), outputFile));
+            return 0;
+        } catch (MissingConfigurationException | ConfluentCloudException ex) {
+            LogUtil.printSnapshotError(ex.getMessage());
+        } catch (ValidationException ex) {
+            LogUtil.printValidationResult(ex.getMessage(), false);
+        } catch (KafkaExecutionException ex) {
+            LogUtil.printSnapshotError(String.format("%s:%n%s", ex.getMessage(), ex.getExceptionMessage()));
+        } catch (WriteSnapshotOutputException ex) {
+            LogUtil.printSnapshotError(ex.getMessage());
+        }
+        return 2;
+    }
+
+    private ManagerConfig generateStateManagerConfig() {
+        return new ManagerConfig.Builder()
+                .setVerboseRequested(parent.isVerboseRequested())
+                .setDeleteDisabled(parent.isDeleteDisabled())
+                .setIncludeUnchangedEnabled(false)
+                .setSkipAclsDisabled(parent.areAclsDisabled())
+                .setSkipTopicsDisabled(parent.areTopicsDisabled())
+                .setManagedPrincipalsOnly(parent.isManagedPrincipalsOnly())
+                .setFullPlanRequested(false)
+                .setNullableCacheDirectory(parent.getCacheDirectory())
+                .setNullableConfigFile(parent.getConfigFile())
+                .setStateFile(parent.getStateFile())
+                .setBatchSize(parent.getBatchSize())
+                .setMaxInFlightRequests(parent.getMaxInFlightRequests())
+                .build();
+    }
+}
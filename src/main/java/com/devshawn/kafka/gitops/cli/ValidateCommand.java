@@ -20,9 +20,8 @@ public class ValidateCommand implements Callable<Integer> {
 
     @Override
     public Integer call() {
-        try {
-            ParserService parserService = new ParserService(parent.getStateFile());
-            StateManager stateManager = new StateManager(generateStateManagerConfig(), parserService);
+        ParserService parserService = new ParserService(parent.getStateFile(), parent.getCacheDirectory());
+        try (StateManager stateManager = new StateManager(generateStateManagerConfig(), parserService)) {
             stateManager.getAndValidateStateFile();
             LogUtil.printValidationResult("Successfully validated the desired state file.", true);
             return 0;
@@ -39,8 +38,13 @@ public class ValidateCommand implements Callable<Integer> {
                 .setIncludeUnchangedEnabled(false)
                 .setSkipAclsDisabled(parent.areAclsDisabled())
                 .setSkipTopicsDisabled(parent.areTopicsDisabled())
+                .setManagedPrincipalsOnly(parent.isManagedPrincipalsOnly())
+                .setFullPlanRequested(false)
+                .setNullableCacheDirectory(parent.getCacheDirectory())
                 .setNullableConfigFile(parent.getConfigFile())
                 .setStateFile(parent.getStateFile())
+                .setBatchSize(parent.getBatchSize())
+                .setMaxInFlightRequests(parent.getMaxInFlightRequests())
                 .build();
     }
 }
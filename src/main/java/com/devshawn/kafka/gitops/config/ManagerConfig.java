@@ -1,5 +1,7 @@
 package com.devshawn.kafka.gitops.config;
 
+import com.devshawn.kafka.gitops.enums.PlanFormat;
+import com.devshawn.kafka.gitops.exception.ValidationException;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import org.inferred.freebuilder.FreeBuilder;
 
@@ -20,12 +22,59 @@ public interface ManagerConfig {
 
     boolean isSkipTopicsDisabled();
 
+    boolean isManagedPrincipalsOnly();
+
+    boolean isFullPlanRequested();
+
+    boolean isConfigCacheTrusted();
+
     Optional<File> getConfigFile();
 
     File getStateFile();
 
     Optional<File> getPlanFile();
 
+    PlanFormat getPlanFormat();
+
+    Optional<File> getSnapshotFile();
+
+    Optional<File> getCacheDirectory();
+
+    int getBatchSize();
+
+    int getMaxInFlightRequests();
+
+    Optional<Integer> getAccountCreationRateLimit();
+
     class Builder extends ManagerConfig_Builder {
+
+        public Builder() {
+            setPlanFormat(PlanFormat.JSON);
+            setConfigCacheTrusted(false);
+        }
+
+        @Override
+        public Builder setBatchSize(int batchSize) {
+            if (batchSize < 1) {
+                throw new ValidationException("The batch size must be a positive integer.");
+            }
+            return super.setBatchSize(batchSize);
+        }
+
+        @Override
+        public Builder setMaxInFlightRequests(int maxInFlightRequests) {
+            if (maxInFlightRequests < 1) {
+                throw new ValidationException("The maximum number of in-flight requests must be a positive integer.");
+            }
+            return super.setMaxInFlightRequests(maxInFlightRequests);
+        }
+
+        @Override
+        public Builder setAccountCreationRateLimit(int accountCreationRateLimit) {
+            if (accountCreationRateLimit < 1) {
+                throw new ValidationException("The account creation rate limit must be a positive integer.");
+            }
+            return super.setAccountCreationRateLimit(accountCreationRateLimit);
+        }
     }
 }
@@ -0,0 +1,16 @@
+package com.devshawn.kafka.gitops.domain.cache;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.inferred.freebuilder.FreeBuilder;
+
+@FreeBuilder
+@JsonDeserialize(builder = CachedTopic.Builder.class)
+public interface CachedTopic {
+
+    String getConfigHash();
+
+    String getTopicId();
+
+    class Builder extends CachedTopic_Builder {
+    }
+}
@@ -0,0 +1,20 @@
+package com.devshawn.kafka.gitops.domain.cache;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.inferred.freebuilder.FreeBuilder;
+
+import java.util.Map;
+
+@FreeBuilder
+@JsonDeserialize(builder = PlanCache.Builder.class)
+public interface PlanCache {
+
+    int CURRENT_VERSION = 1;
+
+    int getVersion();
+
+    Map<String, CachedTopic> getTopics();
+
+    class Builder extends PlanCache_Builder {
+    }
+}
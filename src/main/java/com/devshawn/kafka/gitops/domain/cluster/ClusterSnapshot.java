@@ -0,0 +1,20 @@
+package com.devshawn.kafka.gitops.domain.cluster;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.inferred.freebuilder.FreeBuilder;
+
+@FreeBuilder
+@JsonDeserialize(builder = ClusterSnapshot.Builder.class)
+public interface ClusterSnapshot {
+
+    int CURRENT_VERSION = 1;
+
+    int getVersion();
+
+    long getCreatedAt();
+
+    ClusterState getState();
+
+    class Builder extends ClusterSnapshot_Builder {
+    }
+}
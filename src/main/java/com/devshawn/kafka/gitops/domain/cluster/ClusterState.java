@@ -0,0 +1,24 @@
+package com.devshawn.kafka.gitops.domain.cluster;
+
+import com.devshawn.kafka.gitops.domain.state.AclDetails;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.inferred.freebuilder.FreeBuilder;
+
+import java.util.List;
+import java.util.Map;
+
+@FreeBuilder
+@JsonDeserialize(builder = ClusterState.Builder.class)
+public interface ClusterState {
+
+    List<String> getTopics();
+
+    Map<String, String> getTopicIds();
+
+    Map<String, Map<String, String>> getTopicConfigs();
+
+    List<AclDetails> getAcls();
+
+    class Builder extends ClusterState_Builder {
+    }
+}
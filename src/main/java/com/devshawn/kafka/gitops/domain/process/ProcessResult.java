@@ -0,0 +1,27 @@
+package com.devshawn.kafka.gitops.domain.process;
+
+import org.inferred.freebuilder.FreeBuilder;
+
+@FreeBuilder
+public interface ProcessResult {
+
+    int getExitCode();
+
+    String getStdout();
+
+    String getStderr();
+
+    /*
+     * True if either stream produced more output than the executor keeps; the rest was read and discarded.
+     */
+    boolean isTruncated();
+
+    long getElapsedMillis();
+
+    default boolean isSuccess() {
+        return getExitCode() == 0;
+    }
+
+    class Builder extends ProcessResult_Builder {
+    }
+}
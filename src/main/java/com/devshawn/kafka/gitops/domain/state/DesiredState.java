@@ -5,6 +5,8 @@ import org.inferred.freebuilder.FreeBuilder;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 @FreeBuilder
 @JsonDeserialize(builder = DesiredState.Builder.class)
@@ -18,6 +20,12 @@ public interface DesiredState {
 
     List<String> getPrefixedTopicsToAccept();
 
+    default Set<String> toAclPrincipals() {
+        Set<String> principals = new TreeSet<>();
+        getAcls().values().forEach(it -> principals.add(it.getPrincipal()));
+        return principals;
+    }
+
     class Builder extends DesiredState_Builder {
     }
 }
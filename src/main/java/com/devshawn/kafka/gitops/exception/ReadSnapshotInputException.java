@@ -0,0 +1,8 @@
+package com.devshawn.kafka.gitops.exception;
+
+public class ReadSnapshotInputException extends RuntimeException {
+
+    public ReadSnapshotInputException(String message) {
+        super(String.format("Error reading cluster snapshot from file: %s", message));
+    }
+}
@@ -0,0 +1,8 @@
+package com.devshawn.kafka.gitops.exception;
+
+public class WriteSnapshotOutputException extends RuntimeException {
+
+    public WriteSnapshotOutputException(String exMessage) {
+        super(String.format("Error writing cluster snapshot to file: %s", exMessage));
+    }
+}
@@ -1,17 +1,21 @@
 package com.devshawn.kafka.gitops.manager;
 
 import com.devshawn.kafka.gitops.config.ManagerConfig;
-import com.devshawn.kafka.gitops.domain.plan.DesiredPlan;
-import com.devshawn.kafka.gitops.domain.plan.TopicConfigPlan;
+import com.devshawn.kafka.gitops.domain.plan.AclPlan;
 import com.devshawn.kafka.gitops.domain.plan.TopicPlan;
+import com.devshawn.kafka.gitops.domain.state.AclDetails;
+import com.devshawn.kafka.gitops.domain.state.TopicDetails;
 import com.devshawn.kafka.gitops.enums.PlanAction;
 import com.devshawn.kafka.gitops.service.KafkaService;
 import com.devshawn.kafka.gitops.util.LogUtil;
 import org.apache.kafka.clients.admin.AlterConfigOp;
 import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.common.acl.AclBinding;
 import org.apache.kafka.common.config.ConfigResource;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 public class ApplyManager {
 
@@ -23,56 +27,145 @@ public class ApplyManager {
         this.kafkaService = kafkaService;
     }
 
-    public void applyTopics(DesiredPlan desiredPlan) {
-        desiredPlan.getTopicPlans().forEach(topicPlan -> {
+    /*
+     * Every topic request is completed and reported before this returns, so topics created here exist before
+     * applyAcls sends any ACL that references them.
+     */
+    public void applyTopics(PlanSource planSource) {
+        ApplyPipeline pipeline = new ApplyPipeline(managerConfig.getMaxInFlightRequests());
+        List<TopicPlan> batch = new ArrayList<>();
+        planSource.forEachTopicPlan(topicPlan -> {
+            if (topicPlan.getAction() == PlanAction.ADD || topicPlan.getAction() == PlanAction.UPDATE
+                    || (topicPlan.getAction() == PlanAction.REMOVE && !managerConfig.isDeleteDisabled())) {
+                batch.add(topicPlan);
+            }
+            if (batch.size() == managerConfig.getBatchSize()) {
+                applyTopicBatch(batch, pipeline);
+                batch.clear();
+            }
+        });
+        applyTopicBatch(batch, pipeline);
+
+        pipeline.reportAll("Error thrown when attempting to apply Kafka topics");
+    }
+
+    /*
+     * Once a request has failed no further batches are sent; the rest of the plan is still read to its end so the
+     * skipped entries can be reported.
+     */
+    private void applyTopicBatch(List<TopicPlan> batch, ApplyPipeline pipeline) {
+        if (pipeline.hasFailed()) {
+            batch.forEach(it -> pipeline.skip(it.getName()));
+            return;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<String, TopicDetails> newTopics = new LinkedHashMap<>();
+        Map<ConfigResource, Collection<AlterConfigOp>> topicConfigs = new LinkedHashMap<>();
+        List<String> deletedTopics = new ArrayList<>();
+        batch.forEach(topicPlan -> {
             if (topicPlan.getAction() == PlanAction.ADD) {
-                LogUtil.printTopicPreApply(topicPlan);
-                kafkaService.createTopic(topicPlan.getName(), topicPlan.getTopicDetails().orElseThrow());
-                LogUtil.printPostApply();
+                newTopics.put(topicPlan.getName(), topicPlan.getTopicDetails().orElseThrow());
             } else if (topicPlan.getAction() == PlanAction.UPDATE) {
-                LogUtil.printTopicPreApply(topicPlan);
-                topicPlan.getTopicConfigPlans().forEach(topicConfigPlan -> applyTopicConfiguration(topicPlan, topicConfigPlan));
-                LogUtil.printPostApply();
-            } else if (topicPlan.getAction() == PlanAction.REMOVE && !managerConfig.isDeleteDisabled()) {
-                LogUtil.printTopicPreApply(topicPlan);
-                kafkaService.deleteTopic(topicPlan.getName());
-                LogUtil.printPostApply();
+                topicConfigs.put(toConfigResource(topicPlan), getConfigOps(topicPlan));
+            } else {
+                deletedTopics.add(topicPlan.getName());
             }
         });
+
+        Map<String, CompletableFuture<Void>> created = pipeline.submit(() -> kafkaService.createTopics(newTopics));
+        Map<ConfigResource, CompletableFuture<Void>> altered = pipeline.submit(() -> kafkaService.updateTopicConfigs(topicConfigs));
+        Map<String, CompletableFuture<Void>> deleted = pipeline.submit(() -> kafkaService.deleteTopics(deletedTopics));
+
+        for (TopicPlan topicPlan : batch) {
+            CompletableFuture<Void> result;
+            if (topicPlan.getAction() == PlanAction.ADD) {
+                result = created.get(topicPlan.getName());
+            } else if (topicPlan.getAction() == PlanAction.UPDATE) {
+                result = altered.get(toConfigResource(topicPlan));
+            } else {
+                result = deleted.get(topicPlan.getName());
+            }
+            pipeline.add(topicPlan.getName(), () -> LogUtil.printTopicPreApply(topicPlan), result);
+        }
+        pipeline.reportCompleted();
+    }
+
+    private static ConfigResource toConfigResource(TopicPlan topicPlan) {
+        return new ConfigResource(ConfigResource.Type.TOPIC, topicPlan.getName());
     }
 
-    private void applyTopicConfiguration(TopicPlan topicPlan, TopicConfigPlan topicConfigPlan) {
-        Map<ConfigResource, Collection<AlterConfigOp>> configs = new HashMap<>();
-        ConfigResource configResource = new ConfigResource(ConfigResource.Type.TOPIC, topicPlan.getName());
+    private static List<AlterConfigOp> getConfigOps(TopicPlan topicPlan) {
         List<AlterConfigOp> configOps = new ArrayList<>();
+        topicPlan.getTopicConfigPlans().forEach(topicConfigPlan -> {
+            ConfigEntry configEntry = new ConfigEntry(topicConfigPlan.getKey(), topicConfigPlan.getValue().orElse(null));
 
-        ConfigEntry configEntry = new ConfigEntry(topicConfigPlan.getKey(), topicConfigPlan.getValue().orElse(null));
+            // TODO: Make OpType work with append/subtract
+            if (topicConfigPlan.getAction() == PlanAction.ADD) {
+                configOps.add(new AlterConfigOp(configEntry, AlterConfigOp.OpType.SET));
+            } else if (topicConfigPlan.getAction() == PlanAction.UPDATE) {
+                configOps.add(new AlterConfigOp(configEntry, AlterConfigOp.OpType.SET));
+            } else if (topicConfigPlan.getAction() == PlanAction.REMOVE) {
+                configOps.add(new AlterConfigOp(configEntry, AlterConfigOp.OpType.DELETE));
+            }
+        });
+        return configOps;
+    }
+
+    public void applyAcls(PlanSource planSource) {
+        ApplyPipeline pipeline = new ApplyPipeline(managerConfig.getMaxInFlightRequests());
+        List<AclPlan> batch = new ArrayList<>();
+        planSource.forEachAclPlan(aclPlan -> {
+            if (aclPlan.getAction() == PlanAction.ADD || (aclPlan.getAction() == PlanAction.REMOVE && !managerConfig.isDeleteDisabled())) {
+                batch.add(aclPlan);
+            }
+            if (batch.size() == managerConfig.getBatchSize()) {
+                applyAclBatch(batch, pipeline);
+                batch.clear();
+            }
+        });
+        applyAclBatch(batch, pipeline);
+
+        pipeline.reportAll("Error thrown when attempting to apply Kafka ACLs");
+    }
 
-        // TODO: Make OpType work with append/subtract
-        if (topicConfigPlan.getAction() == PlanAction.ADD) {
-            configOps.add(new AlterConfigOp(configEntry, AlterConfigOp.OpType.SET));
-        } else if (topicConfigPlan.getAction() == PlanAction.UPDATE) {
-            configOps.add(new AlterConfigOp(configEntry, AlterConfigOp.OpType.SET));
-        } else if (topicConfigPlan.getAction() == PlanAction.REMOVE) {
-            configOps.add(new AlterConfigOp(configEntry, AlterConfigOp.OpType.DELETE));
+    private void applyAclBatch(List<AclPlan> batch, ApplyPipeline pipeline) {
+        if (pipeline.hasFailed()) {
+            batch.forEach(it -> pipeline.skip(describeAclPlan(it)));
+            return;
+        }
+        if (batch.isEmpty()) {
+            return;
         }
 
-        configs.put(configResource, configOps);
+        Set<AclBinding> newAcls = getAclBindings(batch, PlanAction.ADD);
+        Set<AclBinding> deletedAcls = getAclBindings(batch, PlanAction.REMOVE);
+        Map<AclBinding, CompletableFuture<Void>> created = pipeline.submit(() -> kafkaService.createAcls(newAcls));
+        Map<AclBinding, CompletableFuture<Void>> deleted = pipeline.submit(() -> kafkaService.deleteAcls(deletedAcls));
 
-        kafkaService.updateTopicConfig(configs);
+        for (AclPlan aclPlan : batch) {
+            AclBinding aclBinding = aclPlan.getAclDetails().toAclBinding();
+            CompletableFuture<Void> result = aclPlan.getAction() == PlanAction.ADD ? created.get(aclBinding) : deleted.get(aclBinding);
+            pipeline.add(describeAclPlan(aclPlan), () -> LogUtil.printAclPreApply(aclPlan), result);
+        }
+        pipeline.reportCompleted();
     }
 
-    public void applyAcls(DesiredPlan desiredPlan) {
-        desiredPlan.getAclPlans().forEach(aclPlan -> {
-            if (aclPlan.getAction() == PlanAction.ADD) {
-                LogUtil.printAclPreApply(aclPlan);
-                kafkaService.createAcl(aclPlan.getAclDetails().toAclBinding());
-                LogUtil.printPostApply();
-            } else if (aclPlan.getAction() == PlanAction.REMOVE && !managerConfig.isDeleteDisabled()) {
-                LogUtil.printAclPreApply(aclPlan);
-                kafkaService.deleteAcl(aclPlan.getAclDetails().toAclBinding());
-                LogUtil.printPostApply();
-            }
-        });
+    private static Set<AclBinding> getAclBindings(List<AclPlan> aclPlans, PlanAction action) {
+        return aclPlans.stream()
+                .filter(it -> it.getAction() == action)
+                .map(it -> it.getAclDetails().toAclBinding())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static String describeAclPlan(AclPlan aclPlan) {
+        return String.format("%s %s", aclPlan.getName(), describeAcl(aclPlan.getAclDetails()));
+    }
+
+    private static String describeAcl(AclDetails aclDetails) {
+        return String.format("[%s %s on %s %s:%s for %s]", aclDetails.getPermission(), aclDetails.getOperation(),
+                aclDetails.getPattern(), aclDetails.getType(), aclDetails.getName(), aclDetails.getPrincipal());
     }
 }
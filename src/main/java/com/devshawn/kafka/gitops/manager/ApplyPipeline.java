@@ -0,0 +1,133 @@
+package com.devshawn.kafka.gitops.manager;
+
+import com.devshawn.kafka.gitops.exception.KafkaExecutionException;
+import com.devshawn.kafka.gitops.util.LogUtil;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/*
+ * Keeps up to a fixed number of admin requests in flight while reporting their results in the order the
+ * results were added, so the apply output does not depend on the order in which the cluster answers.
+ */
+class ApplyPipeline {
+
+    private final Semaphore permits;
+    private final Deque<PendingResult> pending = new ArrayDeque<>();
+    private final List<String> failures = new ArrayList<>();
+    private final List<String> skipped = new ArrayList<>();
+    private final AtomicBoolean failed = new AtomicBoolean(false);
+
+    ApplyPipeline(int maxInFlightRequests) {
+        this.permits = new Semaphore(maxInFlightRequests);
+    }
+
+    <K> Map<K, CompletableFuture<Void>> submit(Supplier<Map<K, CompletableFuture<Void>>> request) {
+        acquirePermit();
+        Map<K, CompletableFuture<Void>> results;
+        try {
+            results = request.get();
+        } catch (RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+
+        if (results.isEmpty()) {
+            permits.release();
+        } else {
+            CompletableFuture.allOf(results.values().toArray(new CompletableFuture[0])).whenComplete((ignored, ex) -> {
+                if (ex != null) {
+                    failed.set(true);
+                }
+                permits.release();
+            });
+        }
+        return results;
+    }
+
+    /*
+     * A missing result means the resource was looked up under a key that was never submitted, so no request was
+     * sent for it. It is reported as a failure rather than as applied.
+     */
+    void add(String resource, Runnable preApply, CompletableFuture<Void> result) {
+        if (result == null) {
+            failed.set(true);
+            result = CompletableFuture.failedFuture(new IllegalStateException(
+                    String.format("No admin request was sent for %s", resource)));
+        }
+        pending.addLast(new PendingResult(resource, preApply, result));
+    }
+
+    void skip(String resource) {
+        skipped.add(resource);
+    }
+
+    boolean hasFailed() {
+        return failed.get() || !failures.isEmpty();
+    }
+
+    void reportCompleted() {
+        while (!pending.isEmpty() && pending.peekFirst().result.isDone()) {
+            report(pending.pollFirst());
+        }
+    }
+
+    void reportAll(String errorMessage) {
+        while (!pending.isEmpty()) {
+            report(pending.pollFirst());
+        }
+
+        if (!skipped.isEmpty()) {
+            LogUtil.printApplySkipped(skipped);
+        }
+
+        if (!failures.isEmpty()) {
+            List<String> details = new ArrayList<>(failures);
+            skipped.forEach(it -> details.add(String.format("%s: Not applied because an earlier request failed", it)));
+            throw new KafkaExecutionException(errorMessage, String.join("\n", details));
+        }
+    }
+
+    private void report(PendingResult pendingResult) {
+        pendingResult.preApply.run();
+        try {
+            pendingResult.result.get();
+            LogUtil.printPostApply();
+        } catch (ExecutionException ex) {
+            LogUtil.printApplyFailure(ex.getMessage());
+            failures.add(String.format("%s: %s", pendingResult.resource, ex.getMessage()));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new KafkaExecutionException("Interrupted while waiting for a Kafka admin request", ex.getMessage());
+        }
+    }
+
+    private void acquirePermit() {
+        try {
+            permits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new KafkaExecutionException("Interrupted while waiting to send a Kafka admin request", ex.getMessage());
+        }
+    }
+
+    private static class PendingResult {
+        private final String resource;
+        private final Runnable preApply;
+        private final CompletableFuture<Void> result;
+
+        private PendingResult(String resource, Runnable preApply, CompletableFuture<Void> result) {
+            this.resource = resource;
+            this.preApply = preApply;
+            this.result = result;
+        }
+    }
+}
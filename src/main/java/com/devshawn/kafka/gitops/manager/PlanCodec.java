@@ -0,0 +1,139 @@
+package com.devshawn.kafka.gitops.manager;
+
+import com.devshawn.kafka.gitops.domain.plan.AclPlan;
+import com.devshawn.kafka.gitops.domain.plan.DesiredPlan;
+import com.devshawn.kafka.gitops.domain.plan.TopicPlan;
+import com.devshawn.kafka.gitops.enums.PlanAction;
+import com.devshawn.kafka.gitops.enums.PlanFormat;
+import com.devshawn.kafka.gitops.exception.ReadPlanInputException;
+import com.devshawn.kafka.gitops.util.MapperUtil;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ * Encodes and decodes the plan document. JSON is written as is; the binary format is Smile with shared names and
+ * string values, compressed with gzip. Readers detect the format from the first bytes, so a plan file can be
+ * applied without knowing how it was written.
+ */
+final class PlanCodec {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final byte[] GZIP_MAGIC = {(byte) 0x1f, (byte) 0x8b};
+    private static final byte[] SMILE_MAGIC = {':', ')', '\n'};
+
+    private static final SmileFactory SMILE_FACTORY = SmileFactory.builder()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            .build();
+
+    private PlanCodec() {
+    }
+
+    static void write(PlanFormat format, OutputStream outputStream, DesiredPlan desiredPlan, boolean includeUnchanged) throws IOException {
+        ObjectWriter writer = MapperUtil.getPlanEntryWriter();
+        try (JsonGenerator generator = createGenerator(format, outputStream)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("topicPlans");
+            for (TopicPlan topicPlan : desiredPlan.getTopicPlans()) {
+                if (includeUnchanged) {
+                    writer.writeValue(generator, topicPlan);
+                } else if (topicPlan.getAction() != PlanAction.NO_CHANGE) {
+                    writer.writeValue(generator, topicPlan.toChangesOnlyPlan());
+                }
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("aclPlans");
+            for (AclPlan aclPlan : desiredPlan.getAclPlans()) {
+                if (includeUnchanged || aclPlan.getAction() != PlanAction.NO_CHANGE) {
+                    writer.writeValue(generator, aclPlan);
+                }
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    /*
+     * Either consumer may be null, in which case its section is skipped without binding its entries.
+     */
+    static void read(InputStream inputStream, Consumer<TopicPlan> topicPlans, Consumer<AclPlan> aclPlans) throws IOException {
+        try (JsonParser parser = createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new ReadPlanInputException();
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.currentName();
+                parser.nextToken();
+                if (fieldName.equals("topicPlans") && topicPlans != null) {
+                    readEntries(parser, MapperUtil.getTopicPlanReader(), topicPlans);
+                } else if (fieldName.equals("aclPlans") && aclPlans != null) {
+                    readEntries(parser, MapperUtil.getAclPlanReader(), aclPlans);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private static JsonGenerator createGenerator(PlanFormat format, OutputStream outputStream) throws IOException {
+        if (format == PlanFormat.SMILE) {
+            return SMILE_FACTORY.createGenerator(new GZIPOutputStream(outputStream, BUFFER_SIZE));
+        }
+        return MapperUtil.getJsonMapper().getFactory().createGenerator(outputStream);
+    }
+
+    private static JsonParser createParser(InputStream inputStream) throws IOException {
+        InputStream input = markable(inputStream);
+        if (startsWith(input, GZIP_MAGIC)) {
+            input = markable(new GZIPInputStream(input, BUFFER_SIZE));
+        }
+        if (startsWith(input, SMILE_MAGIC)) {
+            return SMILE_FACTORY.createParser(input);
+        }
+        return MapperUtil.getJsonMapper().getFactory().createParser(input);
+    }
+
+    private static InputStream markable(InputStream inputStream) {
+        return inputStream.markSupported() ? inputStream : new BufferedInputStream(inputStream, BUFFER_SIZE);
+    }
+
+    private static boolean startsWith(InputStream inputStream, byte[] magic) throws IOException {
+        inputStream.mark(magic.length);
+        try {
+            byte[] header = inputStream.readNBytes(magic.length);
+            return Arrays.equals(header, magic);
+        } finally {
+            inputStream.reset();
+        }
+    }
+
+    private static <T> void readEntries(JsonParser parser, ObjectReader reader, Consumer<T> consumer) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new ReadPlanInputException();
+        }
+
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new ReadPlanInputException();
+            }
+            consumer.accept(reader.readValue(parser));
+        }
+    }
+}
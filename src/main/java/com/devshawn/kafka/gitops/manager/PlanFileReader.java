@@ -0,0 +1,56 @@
+package com.devshawn.kafka.gitops.manager;
+
+import com.devshawn.kafka.gitops.domain.plan.AclPlan;
+import com.devshawn.kafka.gitops.domain.plan.TopicPlan;
+import com.devshawn.kafka.gitops.exception.ReadPlanInputException;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/*
+ * Streams plan entries out of a plan file one at a time, so a plan never has to fit in memory as a whole.
+ * Sections that are not consumed are skipped without binding their entries, and the plan format is detected
+ * by PlanCodec from the first bytes of the file.
+ */
+class PlanFileReader implements PlanSource {
+
+    private final File planFile;
+
+    PlanFileReader(File planFile) {
+        this.planFile = planFile;
+    }
+
+    @Override
+    public void forEachTopicPlan(Consumer<TopicPlan> topicPlans) {
+        read(topicPlans, null);
+    }
+
+    @Override
+    public void forEachAclPlan(Consumer<AclPlan> aclPlans) {
+        read(null, aclPlans);
+    }
+
+    @Override
+    public void forEach(Consumer<TopicPlan> topicPlans, Consumer<AclPlan> aclPlans) {
+        read(topicPlans, aclPlans);
+    }
+
+    private void read(Consumer<TopicPlan> topicPlans, Consumer<AclPlan> aclPlans) {
+        try (FileChannel channel = FileChannel.open(planFile.toPath(), StandardOpenOption.READ);
+             InputStream inputStream = new BufferedInputStream(Channels.newInputStream(channel), PlanCodec.BUFFER_SIZE)) {
+            PlanCodec.read(inputStream, topicPlans, aclPlans);
+        } catch (NoSuchFileException | FileNotFoundException ex) {
+            throw new ReadPlanInputException("The specified plan file could not be found.");
+        } catch (IOException ex) {
+            throw new ReadPlanInputException();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.devshawn.kafka.gitops.manager;
 
 import com.devshawn.kafka.gitops.config.ManagerConfig;
+import com.devshawn.kafka.gitops.domain.cluster.ClusterState;
 import com.devshawn.kafka.gitops.domain.plan.AclPlan;
 import com.devshawn.kafka.gitops.domain.plan.DesiredPlan;
 import com.devshawn.kafka.gitops.domain.plan.PlanOverview;
@@ -11,120 +12,111 @@ import com.devshawn.kafka.gitops.domain.state.DesiredState;
 import com.devshawn.kafka.gitops.domain.state.TopicDetails;
 import com.devshawn.kafka.gitops.enums.PlanAction;
 import com.devshawn.kafka.gitops.exception.PlanIsUpToDateException;
-import com.devshawn.kafka.gitops.exception.ReadPlanInputException;
 import com.devshawn.kafka.gitops.exception.WritePlanOutputException;
-import com.devshawn.kafka.gitops.service.KafkaService;
 import com.devshawn.kafka.gitops.util.PlanUtil;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.apache.kafka.clients.admin.Config;
-import org.apache.kafka.clients.admin.ConfigEntry;
-import org.apache.kafka.clients.admin.TopicListing;
-import org.apache.kafka.common.acl.AclBinding;
-import org.apache.kafka.common.config.ConfigResource;
+import com.devshawn.kafka.gitops.util.PrefixMatcher;
 import org.slf4j.LoggerFactory;
 
-import java.io.FileNotFoundException;
-import java.io.FileWriter;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
-import java.util.List;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 public class PlanManager {
     private static final org.slf4j.Logger LOG = LoggerFactory.getLogger(PlanManager.class);
 
     private final ManagerConfig managerConfig;
-    private final KafkaService kafkaService;
-    private final ObjectMapper objectMapper;
 
-    public PlanManager(ManagerConfig managerConfig, KafkaService kafkaService, ObjectMapper objectMapper) {
+    public PlanManager(ManagerConfig managerConfig) {
         this.managerConfig = managerConfig;
-        this.kafkaService = kafkaService;
-        this.objectMapper = objectMapper;
     }
 
-    public void planTopics(DesiredState desiredState, DesiredPlan.Builder desiredPlan) {
-        List<TopicListing> topics = kafkaService.getTopics();
-        List<String> topicNames = topics.stream().map(TopicListing::name).toList();
-        Map<String, List<ConfigEntry>> topicConfigs = fetchTopicConfigurations(topicNames);
+    public void planTopics(DesiredState desiredState, ClusterState clusterState, DesiredPlan.Builder desiredPlan) {
+        Set<String> currentTopicNames = new HashSet<>(clusterState.getTopics());
+        Map<String, Map<String, String>> topicConfigs = clusterState.getTopicConfigs();
 
         desiredState.getTopics().forEach((key, value) -> {
             TopicPlan.Builder topicPlan = new TopicPlan.Builder()
                     .setName(key)
                     .setTopicDetails(value);
 
-            if (!topicNames.contains(key)) {
+            if (!currentTopicNames.contains(key)) {
                 LOG.info("[PLAN] Topic {} does not exist; it will be created.", key);
                 topicPlan.setAction(PlanAction.ADD);
             } else {
                 LOG.info("[PLAN] Topic {} exists, it will not be created.", key);
                 topicPlan.setAction(PlanAction.NO_CHANGE);
-                planTopicConfigurations(key, value, topicConfigs.get(key), topicPlan);
+                planTopicConfigurations(key, value, topicConfigs.getOrDefault(key, Map.of()), topicPlan);
             }
 
             desiredPlan.addTopicPlans(topicPlan.build());
         });
 
-        for (TopicListing currentTopic : topics) {
-            boolean acceptTopic = desiredState.getPrefixedTopicsToAccept().stream().anyMatch(it -> currentTopic.name().startsWith(it));
-            if (!desiredState.getPrefixedTopicsToAccept().isEmpty() && !acceptTopic) {
-                LOG.info("[PLAN] Ignoring non-included topic {} due to prefix", currentTopic.name());
+        PrefixMatcher acceptMatcher = new PrefixMatcher(desiredState.getPrefixedTopicsToAccept());
+        PrefixMatcher ignoreMatcher = new PrefixMatcher(desiredState.getPrefixedTopicsToIgnore());
+        for (String currentTopic : clusterState.getTopics()) {
+            if (!acceptMatcher.isEmpty() && !acceptMatcher.matches(currentTopic)) {
+                LOG.info("[PLAN] Ignoring non-included topic {} due to prefix", currentTopic);
                 continue;
             }
 
-            boolean ignoreTopic = desiredState.getPrefixedTopicsToIgnore().stream().anyMatch(it -> currentTopic.name().startsWith(it));
-            if (ignoreTopic) {
-                LOG.info("[PLAN] Ignoring excluded topic {} due to prefix", currentTopic.name());
+            if (ignoreMatcher.matches(currentTopic)) {
+                LOG.info("[PLAN] Ignoring excluded topic {} due to prefix", currentTopic);
                 continue;
             }
 
-            if (!managerConfig.isDeleteDisabled() && !desiredState.getTopics().containsKey(currentTopic.name())) {
+            if (!managerConfig.isDeleteDisabled() && !desiredState.getTopics().containsKey(currentTopic)) {
                 TopicPlan topicPlan = new TopicPlan.Builder()
-                        .setName(currentTopic.name())
+                        .setName(currentTopic)
                         .setAction(PlanAction.REMOVE)
                         .build();
 
                 desiredPlan.addTopicPlans(topicPlan);
             }
         }
+
+        acceptMatcher.getMatchCounts().forEach((prefix, count) -> LOG.info("[PLAN] Include prefix {} matched {} topic(s)", prefix, count));
+        ignoreMatcher.getMatchCounts().forEach((prefix, count) -> LOG.info("[PLAN] Exclude prefix {} excluded {} topic(s)", prefix, count));
     }
 
-    private void planTopicConfigurations(String topicName, TopicDetails topicDetails, List<ConfigEntry> configs, TopicPlan.Builder topicPlan) {
+    private void planTopicConfigurations(String topicName, TopicDetails topicDetails, Map<String, String> customConfigs, TopicPlan.Builder topicPlan) {
         Map<String, TopicConfigPlan> configPlans = new HashMap<>();
-        List<ConfigEntry> customConfigs = configs.stream()
-                .filter(it -> it.source() == ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG)
-                .toList();
 
-        customConfigs.forEach(currentConfig -> {
-            String newConfig = topicDetails.getConfigs().getOrDefault(currentConfig.name(), null);
+        customConfigs.forEach((currentName, currentValue) -> {
+            String newConfig = topicDetails.getConfigs().getOrDefault(currentName, null);
 
             TopicConfigPlan.Builder topicConfigPlan = new TopicConfigPlan.Builder()
-                    .setKey(currentConfig.name());
+                    .setKey(currentName);
 
-            if (currentConfig.value().equals(newConfig)) {
+            if (currentValue.equals(newConfig)) {
                 topicConfigPlan.setAction(PlanAction.NO_CHANGE);
-                topicConfigPlan.setValue(currentConfig.value());
-                configPlans.put(currentConfig.name(), topicConfigPlan.build());
+                topicConfigPlan.setValue(currentValue);
+                configPlans.put(currentName, topicConfigPlan.build());
             } else if (newConfig == null) {
                 topicConfigPlan.setAction(PlanAction.REMOVE);
-                configPlans.put(currentConfig.name(), topicConfigPlan.build());
+                configPlans.put(currentName, topicConfigPlan.build());
                 topicPlan.setAction(PlanAction.UPDATE);
             }
         });
 
         topicDetails.getConfigs().forEach((key, value) -> {
-            ConfigEntry currentConfig = customConfigs.stream().filter(it -> it.name().equals(key)).findFirst().orElse(null);
+            String currentValue = customConfigs.get(key);
 
             TopicConfigPlan.Builder topicConfigPlan = new TopicConfigPlan.Builder()
                     .setKey(key)
                     .setValue(value);
 
-            if (currentConfig == null) {
+            if (currentValue == null) {
                 topicConfigPlan.setAction(PlanAction.ADD);
                 configPlans.put(key, topicConfigPlan.build());
                 topicPlan.setAction(PlanAction.UPDATE);
-            } else if (!currentConfig.value().equals(value)) {
+            } else if (!currentValue.equals(value)) {
                 topicConfigPlan.setAction(PlanAction.UPDATE);
                 configPlans.put(key, topicConfigPlan.build());
                 topicPlan.setAction(PlanAction.UPDATE);
@@ -137,13 +129,14 @@ public class PlanManager {
         });
     }
 
-    public void planAcls(DesiredState desiredState, DesiredPlan.Builder desiredPlan) {
-        List<AclBinding> currentAcls = kafkaService.getAcls();
+    public void planAcls(DesiredState desiredState, ClusterState clusterState, DesiredPlan.Builder desiredPlan) {
+        Map<AclDetails, Map.Entry<String, AclDetails>> desiredAcls = new HashMap<>();
+        desiredState.getAcls().entrySet().forEach(entry -> desiredAcls.putIfAbsent(entry.getValue(), entry));
+        Set<AclDetails> currentAcls = new HashSet<>();
 
-        currentAcls.forEach(acl -> {
-            Map.Entry<String, AclDetails> detailsEntry = desiredState.getAcls().entrySet().stream()
-                    .filter(entry -> entry.getValue().equalsAclBinding(acl))
-                    .findFirst().orElse(null);
+        clusterState.getAcls().forEach(acl -> {
+            currentAcls.add(acl);
+            Map.Entry<String, AclDetails> detailsEntry = desiredAcls.get(acl);
 
             AclPlan.Builder aclPlan = new AclPlan.Builder();
 
@@ -154,7 +147,7 @@ public class PlanManager {
                 desiredPlan.addAclPlans(aclPlan.build());
             } else {
                 aclPlan.setName("Unnamed ACL");
-                aclPlan.setAclDetails(AclDetails.fromAclBinding(acl));
+                aclPlan.setAclDetails(acl);
                 aclPlan.setAction(PlanAction.REMOVE);
 
                 if (!managerConfig.isDeleteDisabled()) {
@@ -164,8 +157,7 @@ public class PlanManager {
         });
 
         desiredState.getAcls().forEach((key, value) -> {
-            AclBinding aclBinding = currentAcls.stream().filter(value::equalsAclBinding).findFirst().orElse(null);
-            if (aclBinding == null) {
+            if (!currentAcls.contains(value)) {
                 AclPlan aclPlan = new AclPlan.Builder()
                         .setName(key)
                         .setAclDetails(value)
@@ -181,44 +173,36 @@ public class PlanManager {
                                        boolean deleteDisabled,
                                        boolean skipAclsDisabled,
                                        boolean skipTopicsDisabled) {
-        PlanOverview planOverview = PlanUtil.getOverview(desiredPlan, deleteDisabled, skipAclsDisabled, skipTopicsDisabled);
+        validatePlanHasChanges(PlanUtil.getOverview(desiredPlan, deleteDisabled, skipAclsDisabled, skipTopicsDisabled));
+    }
+
+    public void validatePlanHasChanges(PlanOverview planOverview) {
         if (planOverview.getAdd() == 0 && planOverview.getUpdate() == 0 && planOverview.getRemove() == 0) {
             throw new PlanIsUpToDateException();
         }
     }
 
-    public DesiredPlan readPlanFromFile() {
-        return managerConfig.getPlanFile().map(file -> {
-            try {
-                return objectMapper.readValue(file, DesiredPlan.class);
-            } catch (FileNotFoundException ex) {
-                throw new ReadPlanInputException("The specified plan file could not be found.");
-            } catch (IOException ex) {
-                throw new ReadPlanInputException();
-            }
-        }).orElse(null);
+    public PlanSource readPlanFromFile() {
+        return managerConfig.getPlanFile().<PlanSource>map(file -> new PlanFileReader(file)).orElse(null);
     }
 
+    /*
+     * Plans are written entry by entry through a buffered generator, so the document is never held in memory as
+     * a whole, in the plan format selected on the command line.
+     */
     public void writePlanToFile(DesiredPlan desiredPlan) {
         managerConfig.getPlanFile().ifPresent(planFile -> {
             try {
                 if (!planFile.createNewFile()) {
                     LOG.info("Overwriting existing plan file at {}", planFile);
                 }
-                DesiredPlan outputPlan = managerConfig.isIncludeUnchangedEnabled() ? desiredPlan : desiredPlan.toChangesOnlyPlan();
-                try(FileWriter writer = new FileWriter(planFile)) {
-                    writer.write(objectMapper.writeValueAsString(outputPlan));
+                try (FileChannel channel = FileChannel.open(planFile.toPath(), StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                     OutputStream outputStream = new BufferedOutputStream(Channels.newOutputStream(channel), PlanCodec.BUFFER_SIZE)) {
+                    PlanCodec.write(managerConfig.getPlanFormat(), outputStream, desiredPlan, managerConfig.isIncludeUnchangedEnabled());
                 }
             } catch (IOException ex) {
                 throw new WritePlanOutputException(ex.getMessage());
             }
         });
     }
-
-    private Map<String, List<ConfigEntry>> fetchTopicConfigurations(List<String> topicNames) {
-        Map<String, List<ConfigEntry>> map = new HashMap<>();
-        Map<ConfigResource, Config> configs = kafkaService.describeConfigsForTopics(topicNames);
-        configs.forEach((key, value) -> map.put(key.name(), new ArrayList<>(value.entries())));
-        return map;
-    }
 }
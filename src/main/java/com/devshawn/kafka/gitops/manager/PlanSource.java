@@ -0,0 +1,40 @@
+package com.devshawn.kafka.gitops.manager;
+
+import com.devshawn.kafka.gitops.domain.plan.AclPlan;
+import com.devshawn.kafka.gitops.domain.plan.DesiredPlan;
+import com.devshawn.kafka.gitops.domain.plan.TopicPlan;
+
+import java.util.function.Consumer;
+
+/*
+ * A plan that can be read entry by entry, either from memory or streamed from a plan file. Every call starts
+ * from the first entry again.
+ */
+public interface PlanSource {
+
+    void forEachTopicPlan(Consumer<TopicPlan> topicPlans);
+
+    void forEachAclPlan(Consumer<AclPlan> aclPlans);
+
+    void forEach(Consumer<TopicPlan> topicPlans, Consumer<AclPlan> aclPlans);
+
+    static PlanSource of(DesiredPlan desiredPlan) {
+        return new PlanSource() {
+            @Override
+            public void forEachTopicPlan(Consumer<TopicPlan> topicPlans) {
+                desiredPlan.getTopicPlans().forEach(topicPlans);
+            }
+
+            @Override
+            public void forEachAclPlan(Consumer<AclPlan> aclPlans) {
+                desiredPlan.getAclPlans().forEach(aclPlans);
+            }
+
+            @Override
+            public void forEach(Consumer<TopicPlan> topicPlans, Consumer<AclPlan> aclPlans) {
+                forEachTopicPlan(topicPlans);
+                forEachAclPlan(aclPlans);
+            }
+        };
+    }
+}
@@ -0,0 +1,150 @@
+package com.devshawn.kafka.gitops.service;
+
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.errors.DisconnectException;
+import org.apache.kafka.common.errors.NetworkException;
+import org.apache.kafka.common.errors.ThrottlingQuotaExceededException;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/*
+ * Sends a batched admin mutation and re-sends only the resources that failed because of a quota, a timeout or a
+ * lost connection. Throttled resources wait at least as long as the broker asked; the other errors back off
+ * exponentially with jitter.
+ */
+class AdminRequestRetrier {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdminRequestRetrier.class);
+
+    private final int maxRetries;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    private final AtomicInteger retryCount = new AtomicInteger();
+    private final AtomicLong throttledMillis = new AtomicLong();
+
+    AdminRequestRetrier(int maxRetries, long initialBackoffMs, long maxBackoffMs) {
+        this.maxRetries = maxRetries;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    <K> Map<K, CompletableFuture<Void>> submit(Collection<K> keys, Function<Collection<K>, Map<K, KafkaFuture<Void>>> request) {
+        return submit(keys, request, error -> false);
+    }
+
+    /*
+     * The returned futures complete once their resource succeeded, failed with a non-retriable error or ran out of
+     * retries. A timed out request may still have been applied by the broker, so on a retry an error matching
+     * alreadyApplied (e.g. the topic already exists) counts as success. Exceptions thrown while building the first
+     * request are thrown to the caller.
+     */
+    <K> Map<K, CompletableFuture<Void>> submit(Collection<K> keys, Function<Collection<K>, Map<K, KafkaFuture<Void>>> request,
+                                               Predicate<Throwable> alreadyApplied) {
+        Map<K, CompletableFuture<Void>> results = new LinkedHashMap<>();
+        keys.forEach(key -> results.put(key, new CompletableFuture<>()));
+        send(keys, request, alreadyApplied, results, 0);
+        return results;
+    }
+
+    int getRetryCount() {
+        return retryCount.get();
+    }
+
+    long getThrottledMillis() {
+        return throttledMillis.get();
+    }
+
+    private <K> void send(Collection<K> keys, Function<Collection<K>, Map<K, KafkaFuture<Void>>> request,
+                          Predicate<Throwable> alreadyApplied, Map<K, CompletableFuture<Void>> results, int attempt) {
+        Map<K, KafkaFuture<Void>> responses = request.apply(keys);
+        KafkaFuture.allOf(responses.values().toArray(new KafkaFuture[0])).whenComplete((ignored, ignoredEx) -> {
+            List<K> retryKeys = new ArrayList<>();
+            long throttleTimeMs = 0L;
+            for (K key : keys) {
+                KafkaFuture<Void> response = responses.get(key);
+                Throwable error = response != null
+                        ? getError(response)
+                        : new KafkaException(String.format("The admin request returned no result for %s", key));
+                if (error == null || (attempt > 0 && alreadyApplied.test(error))) {
+                    results.get(key).complete(null);
+                } else if (attempt < maxRetries && isRetriable(error)) {
+                    retryKeys.add(key);
+                    if (error instanceof ThrottlingQuotaExceededException throttled) {
+                        throttleTimeMs = Math.max(throttleTimeMs, throttled.throttleTimeMs());
+                    }
+                } else {
+                    results.get(key).completeExceptionally(error);
+                }
+            }
+
+            if (!retryKeys.isEmpty()) {
+                retryLater(retryKeys, request, alreadyApplied, results, attempt + 1, throttleTimeMs);
+            }
+        });
+    }
+
+    private <K> void retryLater(List<K> keys, Function<Collection<K>, Map<K, KafkaFuture<Void>>> request,
+                                Predicate<Throwable> alreadyApplied, Map<K, CompletableFuture<Void>> results,
+                                int attempt, long throttleTimeMs) {
+        long delayMs = Math.max(throttleTimeMs, getBackoffMs(attempt));
+        retryCount.addAndGet(keys.size());
+        throttledMillis.addAndGet(throttleTimeMs);
+        LOG.info("Retrying {} resource(s) in {} ms (attempt {} of {})", keys.size(), delayMs, attempt, maxRetries);
+
+        CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS).execute(() -> {
+            try {
+                send(keys, request, alreadyApplied, results, attempt);
+            } catch (RuntimeException ex) {
+                keys.forEach(key -> results.get(key).completeExceptionally(ex));
+            }
+        });
+    }
+
+    /*
+     * Exponential backoff with equal jitter: half of the delay is fixed and the other half is random.
+     */
+    private long getBackoffMs(int attempt) {
+        long backoffMs = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 30));
+        return backoffMs / 2 + ThreadLocalRandom.current().nextLong(backoffMs / 2 + 1);
+    }
+
+    /*
+     * Other retriable errors, e.g. an unknown topic or a missing leader, describe the state of the cluster rather
+     * than of the request and are reported instead of retried.
+     */
+    private static boolean isRetriable(Throwable error) {
+        return error instanceof ThrottlingQuotaExceededException
+                || error instanceof TimeoutException
+                || error instanceof DisconnectException
+                || error instanceof NetworkException;
+    }
+
+    private static Throwable getError(KafkaFuture<Void> response) {
+        try {
+            response.get();
+            return null;
+        } catch (ExecutionException ex) {
+            return ex.getCause();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return ex;
+        }
+    }
+}
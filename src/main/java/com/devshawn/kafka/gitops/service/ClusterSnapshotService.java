@@ -0,0 +1,49 @@
+package com.devshawn.kafka.gitops.service;
+
+import com.devshawn.kafka.gitops.domain.cluster.ClusterSnapshot;
+import com.devshawn.kafka.gitops.domain.cluster.ClusterState;
+import com.devshawn.kafka.gitops.exception.ReadSnapshotInputException;
+import com.devshawn.kafka.gitops.exception.WriteSnapshotOutputException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+public class ClusterSnapshotService {
+
+    private final ObjectMapper objectMapper;
+
+    public ClusterSnapshotService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public void writeSnapshot(File snapshotFile, ClusterState clusterState) {
+        ClusterSnapshot snapshot = new ClusterSnapshot.Builder()
+                .setVersion(ClusterSnapshot.CURRENT_VERSION)
+                .setCreatedAt(System.currentTimeMillis())
+                .setState(clusterState)
+                .build();
+        try {
+            objectMapper.writeValue(snapshotFile, snapshot);
+        } catch (IOException ex) {
+            throw new WriteSnapshotOutputException(ex.getMessage());
+        }
+    }
+
+    public ClusterState readSnapshot(File snapshotFile) {
+        ClusterSnapshot snapshot;
+        try {
+            snapshot = objectMapper.readValue(snapshotFile, ClusterSnapshot.class);
+        } catch (FileNotFoundException ex) {
+            throw new ReadSnapshotInputException("The specified snapshot file could not be found.");
+        } catch (IOException ex) {
+            throw new ReadSnapshotInputException("Please run the snapshot command again to create a new snapshot file.");
+        }
+
+        if (snapshot.getVersion() != ClusterSnapshot.CURRENT_VERSION) {
+            throw new ReadSnapshotInputException(String.format("Unsupported snapshot version %s; please run the snapshot command again.", snapshot.getVersion()));
+        }
+        return snapshot.getState();
+    }
+}
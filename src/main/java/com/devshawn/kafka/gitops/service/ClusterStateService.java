@@ -0,0 +1,153 @@
+package com.devshawn.kafka.gitops.service;
+
+import com.devshawn.kafka.gitops.config.ManagerConfig;
+import com.devshawn.kafka.gitops.domain.cluster.ClusterState;
+import com.devshawn.kafka.gitops.domain.state.AclDetails;
+import com.devshawn.kafka.gitops.domain.state.DesiredState;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.clients.admin.TopicListing;
+import org.apache.kafka.common.acl.AclBinding;
+import org.apache.kafka.common.config.ConfigResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/*
+ * Fetches everything a plan diffs against before any diffing starts. Topics and ACLs are requested at the same
+ * time, and topic configs are requested as soon as the topic list is known.
+ */
+public class ClusterStateService implements ClusterStateSource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClusterStateService.class);
+
+    private final ManagerConfig managerConfig;
+    private final KafkaService kafkaService;
+
+    public ClusterStateService(ManagerConfig managerConfig, KafkaService kafkaService) {
+        this.managerConfig = managerConfig;
+        this.kafkaService = kafkaService;
+    }
+
+    @Override
+    public ClusterState fetchClusterState(DesiredState desiredState, BiPredicate<String, String> isTopicConfigCached) {
+        long start = System.nanoTime();
+
+        CompletableFuture<List<AclDetails>> acls = managerConfig.isSkipAclsDisabled()
+                ? CompletableFuture.completedFuture(List.of())
+                : timed("ACLs", () -> fetchAcls(desiredState), List::size);
+
+        CompletableFuture<List<TopicListing>> topics = managerConfig.isSkipTopicsDisabled()
+                ? CompletableFuture.completedFuture(List.of())
+                : timed("topics", kafkaService::getTopics, List::size);
+
+        return collect(start, acls, topics, listings -> getManagedTopicNames(desiredState, listings, isTopicConfigCached));
+    }
+
+    /*
+     * A snapshot is planned against desired states that are not known yet, so it holds every ACL and the configs
+     * of every topic regardless of the skip and principal filters.
+     */
+    public ClusterState fetchFullClusterState() {
+        long start = System.nanoTime();
+        return collect(start, timed("ACLs", this::fetchAllAcls, List::size), timed("topics", kafkaService::getTopics, List::size),
+                listings -> listings.stream().map(TopicListing::name).toList());
+    }
+
+    private ClusterState collect(long start, CompletableFuture<List<AclDetails>> acls, CompletableFuture<List<TopicListing>> topics,
+                                 Function<List<TopicListing>, List<String>> configuredTopics) {
+        CompletableFuture<Map<String, Map<String, String>>> topicConfigs = topics.thenComposeAsync(listings -> {
+            List<String> configuredTopicNames = configuredTopics.apply(listings);
+            if (configuredTopicNames.isEmpty()) {
+                return CompletableFuture.completedFuture(Map.of());
+            }
+            return timed("topic configs", () -> kafkaService.describeConfigsForTopics(configuredTopicNames, managerConfig.getBatchSize()), Map::size)
+                    .thenApply(ClusterStateService::getDynamicTopicConfigs);
+        });
+
+        ClusterState.Builder clusterState = new ClusterState.Builder()
+                .putAllTopicConfigs(KafkaService.await(topicConfigs))
+                .addAllAcls(KafkaService.await(acls));
+        KafkaService.await(topics).forEach(listing -> clusterState
+                .addTopics(listing.name())
+                .putTopicIds(listing.name(), listing.topicId().toString()));
+        LOG.info("[PLAN] Fetched cluster state in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return clusterState.build();
+    }
+
+    /*
+     * In managed-principals-only mode, ACLs of principals missing from the desired state are never fetched, so
+     * they are neither diffed nor removed. Otherwise every resource type is described in its own request, and each
+     * response is converted as soon as it arrives instead of after the slowest one.
+     */
+    private CompletableFuture<List<AclDetails>> fetchAcls(DesiredState desiredState) {
+        if (managerConfig.isManagedPrincipalsOnly()) {
+            Set<String> principals = desiredState.toAclPrincipals();
+            LOG.info("[PLAN] Fetching ACLs of {} managed principal(s)", principals.size());
+            return kafkaService.getAclsForPrincipals(principals, managerConfig.getMaxInFlightRequests()).thenApply(ClusterStateService::toAclDetails);
+        }
+        return fetchAllAcls();
+    }
+
+    private CompletableFuture<List<AclDetails>> fetchAllAcls() {
+        List<CompletableFuture<List<AclDetails>>> futures = KafkaService.ACL_RESOURCE_TYPES.stream()
+                .map(type -> timed(String.format("%s ACLs", type), () -> kafkaService.getAcls(type), List::size)
+                        .thenApply(ClusterStateService::toAclDetails))
+                .toList();
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            List<AclDetails> acls = new ArrayList<>();
+            futures.forEach(future -> acls.addAll(future.join()));
+            return acls;
+        });
+    }
+
+    private static List<AclDetails> toAclDetails(List<AclBinding> bindings) {
+        return bindings.stream().map(AclDetails::fromAclBinding).toList();
+    }
+
+    /*
+     * Only topics that exist and are in the desired state have their configs compared, and only those without
+     * cached configs need to be described.
+     */
+    private static List<String> getManagedTopicNames(DesiredState desiredState, List<TopicListing> listings,
+                                                     BiPredicate<String, String> isTopicConfigCached) {
+        Map<String, String> currentTopicIds = new HashMap<>();
+        listings.forEach(listing -> currentTopicIds.put(listing.name(), listing.topicId().toString()));
+        return desiredState.getTopics().keySet().stream()
+                .filter(currentTopicIds::containsKey)
+                .filter(name -> !isTopicConfigCached.test(name, currentTopicIds.get(name)))
+                .toList();
+    }
+
+    private static Map<String, Map<String, String>> getDynamicTopicConfigs(Map<ConfigResource, Config> configs) {
+        Map<String, Map<String, String>> topicConfigs = new HashMap<>();
+        configs.forEach((resource, config) -> {
+            Map<String, String> dynamicConfigs = new LinkedHashMap<>();
+            config.entries().stream()
+                    .filter(it -> it.source() == ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG)
+                    .forEach(it -> dynamicConfigs.putIfAbsent(it.name(), it.value()));
+            topicConfigs.put(resource.name(), dynamicConfigs);
+        });
+        return topicConfigs;
+    }
+
+    private static <T> CompletableFuture<T> timed(String name, Supplier<CompletableFuture<T>> fetch, Function<T, Integer> size) {
+        long start = System.nanoTime();
+        return fetch.get().whenComplete((result, ex) -> {
+            if (ex == null) {
+                LOG.info("[PLAN] Fetched {} {} in {} ms", size.apply(result), name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        });
+    }
+}
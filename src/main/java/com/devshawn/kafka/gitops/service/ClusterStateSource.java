@@ -0,0 +1,15 @@
+package com.devshawn.kafka.gitops.service;
+
+import com.devshawn.kafka.gitops.domain.cluster.ClusterState;
+import com.devshawn.kafka.gitops.domain.state.DesiredState;
+
+import java.util.function.BiPredicate;
+
+/*
+ * Provides the actual state a plan is diffed against. Configs of topics accepted by isTopicConfigCached, called
+ * with a topic's name and id, may be left out when the caller already knows them.
+ */
+public interface ClusterStateSource {
+
+    ClusterState fetchClusterState(DesiredState desiredState, BiPredicate<String, String> isTopicConfigCached);
+}
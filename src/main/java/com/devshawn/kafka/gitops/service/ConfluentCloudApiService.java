@@ -0,0 +1,164 @@
+package com.devshawn.kafka.gitops.service;
+
+import com.devshawn.kafka.gitops.domain.confluent.ServiceAccount;
+import com.devshawn.kafka.gitops.exception.ConfluentCloudException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/*
+ * Talks to the Confluent Cloud IAM v2 API directly instead of starting a ccloud process per call. One HttpClient
+ * is shared by all requests, so connections are reused. Each call blocks until its response arrives; service
+ * accounts are created concurrently by StateManager, which calls this from several threads at once.
+ */
+public class ConfluentCloudApiService implements ServiceAccountProvider {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConfluentCloudApiService.class);
+
+    public static final String API_KEY_VARIABLE = "CONFLUENT_CLOUD_API_KEY";
+    public static final String API_SECRET_VARIABLE = "CONFLUENT_CLOUD_API_SECRET";
+    public static final String API_URL_VARIABLE = "CONFLUENT_CLOUD_API_URL";
+
+    private static final URI DEFAULT_API_URL = URI.create("https://api.confluent.cloud");
+    private static final String SERVICE_ACCOUNTS_PATH = "/iam/v2/service-accounts";
+    private static final int PAGE_SIZE = 100;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final ObjectMapper objectMapper;
+    private final URI apiUrl;
+    private final String authorization;
+    private final HttpClient httpClient;
+
+    public ConfluentCloudApiService(ObjectMapper objectMapper, URI apiUrl, String apiKey, String apiSecret) {
+        this.objectMapper = objectMapper;
+        this.apiUrl = apiUrl;
+        String credentials = String.format("%s:%s", apiKey, apiSecret);
+        this.authorization = "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+        this.httpClient = HttpClient.newBuilder().connectTimeout(CONNECT_TIMEOUT).build();
+    }
+
+    /*
+     * The API is used when a Cloud API key and secret are set in the environment; otherwise callers fall back to
+     * the ccloud tool.
+     */
+    public static Optional<ServiceAccountProvider> fromEnvironment(ObjectMapper objectMapper) {
+        String apiKey = System.getenv(API_KEY_VARIABLE);
+        String apiSecret = System.getenv(API_SECRET_VARIABLE);
+        if (apiKey == null || apiKey.isBlank() || apiSecret == null || apiSecret.isBlank()) {
+            return Optional.empty();
+        }
+        URI apiUrl = Optional.ofNullable(System.getenv(API_URL_VARIABLE)).map(URI::create).orElse(DEFAULT_API_URL);
+        LOG.info("Using the Confluent Cloud API at: {}", apiUrl);
+        return Optional.of(new ConfluentCloudApiService(objectMapper, apiUrl, apiKey, apiSecret));
+    }
+
+    @Override
+    public List<ServiceAccount> getServiceAccounts() {
+        LOG.info("Fetching service account list from Confluent Cloud via the IAM API.");
+        List<ServiceAccount> serviceAccounts = new ArrayList<>();
+        URI page = apiUrl.resolve(String.format("%s?page_size=%s", SERVICE_ACCOUNTS_PATH, PAGE_SIZE));
+        while (page != null) {
+            JsonNode response = send(request(page).GET().build(),
+                    "There was an error listing Confluent Cloud service accounts. Is the Cloud API key valid?");
+            response.path("data").forEach(it -> serviceAccounts.add(toServiceAccount(it)));
+            String next = response.path("metadata").path("next").asText("");
+            page = next.isEmpty() ? null : resolveNextPage(next);
+        }
+        return serviceAccounts;
+    }
+
+    /*
+     * Pagination links come from the response body. They are followed with our credentials attached, so only
+     * links on the configured API origin are accepted.
+     */
+    private URI resolveNextPage(String next) {
+        URI page;
+        try {
+            page = apiUrl.resolve(next);
+        } catch (IllegalArgumentException ex) {
+            throw new ConfluentCloudException(String.format("Confluent Cloud returned an invalid pagination link: %s", next));
+        }
+        if (!isSameOrigin(apiUrl, page)) {
+            throw new ConfluentCloudException(String.format("Confluent Cloud returned a pagination link outside of %s: %s", apiUrl, page));
+        }
+        return page;
+    }
+
+    private static boolean isSameOrigin(URI expected, URI actual) {
+        return expected.getScheme().equalsIgnoreCase(Objects.toString(actual.getScheme(), ""))
+                && expected.getHost().equalsIgnoreCase(Objects.toString(actual.getHost(), ""))
+                && getPort(expected) == getPort(actual);
+    }
+
+    private static int getPort(URI uri) {
+        if (uri.getPort() != -1) {
+            return uri.getPort();
+        }
+        return "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+    }
+
+    @Override
+    public ServiceAccount createServiceAccount(String name, boolean isUser) {
+        LOG.info("Creating service account {} in Confluent Cloud via the IAM API.", name);
+        String serviceName = isUser ? String.format("user-%s", name) : name;
+        String description = isUser ? String.format("User: %s", name) : String.format("Service account: %s", name);
+        String errorMessage = String.format("There was an error creating Confluent Cloud service account: %s.", name);
+        try {
+            String body = objectMapper.writeValueAsString(Map.of("display_name", serviceName, "description", description));
+            HttpRequest request = request(apiUrl.resolve(SERVICE_ACCOUNTS_PATH))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            return toServiceAccount(send(request, errorMessage));
+        } catch (IOException ex) {
+            throw new ConfluentCloudException(errorMessage);
+        }
+    }
+
+    private HttpRequest.Builder request(URI uri) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", authorization)
+                .header("Accept", "application/json");
+    }
+
+    private JsonNode send(HttpRequest request, String errorMessage) {
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                LOG.info("{} {} returned HTTP {}: {}", request.method(), request.uri(), response.statusCode(), response.body());
+                throw new ConfluentCloudException(errorMessage);
+            }
+            return objectMapper.readTree(response.body());
+        } catch (IOException ex) {
+            LOG.info(ex.getMessage());
+            throw new ConfluentCloudException(errorMessage);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConfluentCloudException(errorMessage);
+        }
+    }
+
+    private static ServiceAccount toServiceAccount(JsonNode node) {
+        return new ServiceAccount.Builder()
+                .setId(node.path("id").asText())
+                .setName(node.path("display_name").asText())
+                .build();
+    }
+}
@@ -1,29 +1,39 @@
 package com.devshawn.kafka.gitops.service;
 
 import com.devshawn.kafka.gitops.domain.confluent.ServiceAccount;
+import com.devshawn.kafka.gitops.domain.process.ProcessResult;
 import com.devshawn.kafka.gitops.exception.ConfluentCloudException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 
-public class ConfluentCloudService {
+/*
+ * Lists and creates service accounts through the ccloud tool; used when no Cloud API key is configured.
+ */
+public class ConfluentCloudService implements ServiceAccountProvider {
 
     private static final org.slf4j.Logger LOG = LoggerFactory.getLogger(ConfluentCloudService.class);
 
+    private static final Duration CCLOUD_TIMEOUT = Duration.ofMinutes(2);
+    private static final int MAX_OUTPUT_BYTES = 16 * 1024 * 1024;
+
     private final ObjectMapper objectMapper;
+    private final ProcessExecutor processExecutor = new ProcessExecutor(CCLOUD_TIMEOUT, MAX_OUTPUT_BYTES);
     private static final String ccloudExecutable;
 
     public ConfluentCloudService(ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
     }
 
+    @Override
     public List<ServiceAccount> getServiceAccounts() {
         LOG.info("Fetching service account list from Confluent Cloud via ccloud tool.");
         try {
-            String result = execCmd(new String[]{ccloudExecutable, "service-account", "list", "-o", "json"});
+            String result = execCmd(ccloudExecutable, "service-account", "list", "-o", "json");
             return objectMapper.readValue(result, new TypeReference<>() {
             });
         } catch (IOException ex) {
@@ -32,21 +42,33 @@ public class ConfluentCloudService {
         }
     }
 
+    @Override
     public ServiceAccount createServiceAccount(String name, boolean isUser) {
         LOG.info("Creating service account {} in Confluent Cloud via ccloud tool.", name);
         try {
             String serviceName = isUser ? String.format("user-%s", name) : name;
             String description = isUser ? String.format("User: %s", name) : String.format("Service account: %s", name);
-            String result = execCmd(new String[]{ccloudExecutable, "service-account", "create", serviceName, "--description", description, "-o", "json"});
+            String result = execCmd(ccloudExecutable, "service-account", "create", serviceName, "--description", description, "-o", "json");
             return objectMapper.readValue(result, ServiceAccount.class);
         } catch (IOException ex) {
+            LOG.info(ex.getMessage());
             throw new ConfluentCloudException(String.format("There was an error creating Confluent Cloud service account: %s.", name));
         }
     }
 
-    public static String execCmd(String[] cmd) throws java.io.IOException {
-        java.util.Scanner s = new java.util.Scanner(Runtime.getRuntime().exec(cmd).getInputStream()).useDelimiter("\\A");
-        return s.hasNext() ? s.next() : "";
+    /*
+     * Runs the ccloud tool and returns its output, or throws an IOException if it fails, times out, exits with
+     * a non-zero code or writes more output than is kept, since cut-off JSON cannot be parsed.
+     */
+    private String execCmd(String... cmd) throws IOException {
+        ProcessResult result = processExecutor.execute(List.of(cmd));
+        if (!result.isSuccess()) {
+            throw new IOException(String.format("%s exited with code %s: %s", ccloudExecutable, result.getExitCode(), result.getStderr().strip()));
+        }
+        if (result.isTruncated()) {
+            throw new IOException(String.format("%s output exceeded %s bytes and was truncated", ccloudExecutable, MAX_OUTPUT_BYTES));
+        }
+        return result.getStdout();
     }
 
     static {
@@ -3,113 +3,304 @@ package com.devshawn.kafka.gitops.service;
 import com.devshawn.kafka.gitops.config.KafkaGitopsConfig;
 import com.devshawn.kafka.gitops.domain.state.TopicDetails;
 import com.devshawn.kafka.gitops.exception.KafkaExecutionException;
+import com.devshawn.kafka.gitops.util.HelperUtil;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.admin.AlterConfigOp;
 import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.CreateTopicsOptions;
+import org.apache.kafka.clients.admin.DeleteAclsResult;
+import org.apache.kafka.clients.admin.DeleteTopicsOptions;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.admin.TopicListing;
 import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.acl.AccessControlEntryFilter;
 import org.apache.kafka.common.acl.AclBinding;
 import org.apache.kafka.common.acl.AclBindingFilter;
 import org.apache.kafka.common.acl.AclOperation;
 import org.apache.kafka.common.acl.AclPermissionType;
 import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
 import org.apache.kafka.common.resource.PatternType;
 import org.apache.kafka.common.resource.ResourcePatternFilter;
 import org.apache.kafka.common.resource.ResourceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
-public class KafkaService {
+public class KafkaService implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(KafkaService.class);
+
+    private static final int MAX_RETRIES = 5;
+    private static final long INITIAL_BACKOFF_MS = 100L;
+    private static final long MAX_BACKOFF_MS = 10_000L;
+
+    /*
+     * Every concrete resource type an ACL can be bound to; together they cover a describe with ResourceType.ANY.
+     */
+    public static final List<ResourceType> ACL_RESOURCE_TYPES = List.of(ResourceType.TOPIC, ResourceType.GROUP,
+            ResourceType.CLUSTER, ResourceType.TRANSACTIONAL_ID, ResourceType.DELEGATION_TOKEN, ResourceType.USER);
 
     private final KafkaGitopsConfig config;
+    private final AdminRequestRetrier retrier = new AdminRequestRetrier(MAX_RETRIES, INITIAL_BACKOFF_MS, MAX_BACKOFF_MS);
+
+    private AdminClient adminClient;
+    private int adminClientCount = 0;
+    private volatile long adminClientCreatedNanos;
+    private final AtomicLong firstResponseNanos = new AtomicLong(-1L);
 
     public KafkaService(KafkaGitopsConfig config) {
         this.config = config;
     }
 
-    public List<AclBinding> getAcls() {
-        try (final AdminClient adminClient = buildAdminClient()) {
-            ResourcePatternFilter resourcePatternFilter = new ResourcePatternFilter(ResourceType.ANY, null, PatternType.ANY);
-            AccessControlEntryFilter accessFilter = new AccessControlEntryFilter(null, null, AclOperation.ANY, AclPermissionType.ANY);
-            AclBindingFilter filter = new AclBindingFilter(resourcePatternFilter, accessFilter);
-            return new ArrayList<>(adminClient.describeAcls(filter).values().get());
-        } catch (InterruptedException | ExecutionException ex) {
-            throw new KafkaExecutionException("Error thrown when attempting to list Kafka ACLs", ex.getMessage());
+    KafkaService(KafkaGitopsConfig config, AdminClient adminClient) {
+        this.config = config;
+        this.adminClient = adminClient;
+        this.adminClientCreatedNanos = System.nanoTime();
+    }
+
+    public CompletableFuture<List<AclBinding>> getAcls(ResourceType resourceType) {
+        return describeAcls(resourceType, null);
+    }
+
+    /*
+     * Describes only the ACLs of the given principals, one request per principal, so bindings of other
+     * principals are never sent to this client. The principals are split into at most maxInFlightRequests
+     * chains that each send their next request once the previous one has answered.
+     */
+    public CompletableFuture<List<AclBinding>> getAclsForPrincipals(Collection<String> principals, int maxInFlightRequests) {
+        List<String> principalList = new ArrayList<>(principals);
+        int chainSize = Math.max(1, (principalList.size() + maxInFlightRequests - 1) / maxInFlightRequests);
+        List<CompletableFuture<List<AclBinding>>> futures = HelperUtil.partition(principalList, chainSize).stream()
+                .map(this::describeAclsInSequence)
+                .toList();
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            List<AclBinding> acls = new ArrayList<>();
+            futures.forEach(future -> acls.addAll(future.join()));
+            return acls;
+        });
+    }
+
+    private CompletableFuture<List<AclBinding>> describeAclsInSequence(List<String> principals) {
+        CompletableFuture<List<AclBinding>> result = CompletableFuture.completedFuture(new ArrayList<>());
+        for (String principal : principals) {
+            result = result.thenCompose(acls -> describeAcls(ResourceType.ANY, principal).thenApply(it -> {
+                acls.addAll(it);
+                return acls;
+            }));
         }
+        return result;
     }
 
-    public void createAcl(AclBinding aclBinding) {
-        try (final AdminClient adminClient = buildAdminClient()) {
-            adminClient.createAcls(Collections.singletonList(aclBinding)).all().get();
-        } catch (InterruptedException | ExecutionException ex) {
-            throw new KafkaExecutionException("Error thrown when attempting to create a Kafka ACL", ex.getMessage());
+    private CompletableFuture<List<AclBinding>> describeAcls(ResourceType resourceType, String principal) {
+        ResourcePatternFilter resourcePatternFilter = new ResourcePatternFilter(resourceType, null, PatternType.ANY);
+        AccessControlEntryFilter accessFilter = new AccessControlEntryFilter(principal, null, AclOperation.ANY, AclPermissionType.ANY);
+        AclBindingFilter filter = new AclBindingFilter(resourcePatternFilter, accessFilter);
+        return toCompletableFuture(getAdminClient().describeAcls(filter).values(), "Error thrown when attempting to list Kafka ACLs")
+                .thenApply(ArrayList::new);
+    }
+
+    public Map<AclBinding, CompletableFuture<Void>> createAcls(Collection<AclBinding> aclBindings) {
+        if (aclBindings.isEmpty()) {
+            return Collections.emptyMap();
         }
+        return retrier.submit(aclBindings, batch -> observe(getAdminClient().createAcls(batch).values()));
     }
 
-    public void deleteAcl(AclBinding aclBinding) {
-        try (final AdminClient adminClient = buildAdminClient()) {
-            adminClient.deleteAcls(Collections.singletonList(aclBinding.toFilter())).all().get();
-        } catch (InterruptedException | ExecutionException ex) {
-            throw new KafkaExecutionException("Error thrown when attempting to delete a Kafka ACL", ex.getMessage());
+    public Map<AclBinding, CompletableFuture<Void>> deleteAcls(Collection<AclBinding> aclBindings) {
+        if (aclBindings.isEmpty()) {
+            return Collections.emptyMap();
         }
+        return retrier.submit(aclBindings, this::sendDeleteAcls);
     }
 
-    public void createTopic(String topicName, TopicDetails topicDetails) {
-        try (final AdminClient adminClient = buildAdminClient()) {
-            short replicationFactor = topicDetails.getReplication().orElseThrow().shortValue();
-            NewTopic newTopic = new NewTopic(topicName, topicDetails.getPartitions(), replicationFactor);
-            newTopic.configs(topicDetails.getConfigs());
-            adminClient.createTopics(Collections.singletonList(newTopic)).all().get();
-        } catch (InterruptedException | ExecutionException | NoSuchElementException ex) {
+    public Map<String, CompletableFuture<Void>> createTopics(Map<String, TopicDetails> topics) {
+        if (topics.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        try {
+            Map<String, NewTopic> newTopics = new LinkedHashMap<>();
+            topics.forEach((topicName, topicDetails) -> {
+                short replicationFactor = topicDetails.getReplication().orElseThrow().shortValue();
+                NewTopic newTopic = new NewTopic(topicName, topicDetails.getPartitions(), replicationFactor);
+                newTopic.configs(topicDetails.getConfigs());
+                newTopics.put(topicName, newTopic);
+            });
+            CreateTopicsOptions options = new CreateTopicsOptions().retryOnQuotaViolation(false);
+            return retrier.submit(newTopics.keySet(),
+                    batch -> observe(getAdminClient().createTopics(batch.stream().map(newTopics::get).toList(), options).values()),
+                    TopicExistsException.class::isInstance);
+        } catch (NoSuchElementException ex) {
             throw new KafkaExecutionException("Error thrown when attempting to create a Kafka topic", ex.getMessage());
         }
     }
 
-    public void deleteTopic(String topicName) {
-        try (final AdminClient adminClient = buildAdminClient()) {
-            adminClient.deleteTopics(Collections.singletonList(topicName)).all().get();
-        } catch (InterruptedException | ExecutionException ex) {
-            throw new KafkaExecutionException("Error thrown when attempting to delete a Kafka topic", ex.getMessage());
+    public Map<String, CompletableFuture<Void>> deleteTopics(Collection<String> topicNames) {
+        if (topicNames.isEmpty()) {
+            return Collections.emptyMap();
         }
+        DeleteTopicsOptions options = new DeleteTopicsOptions().retryOnQuotaViolation(false);
+        return retrier.submit(topicNames, batch -> observe(getAdminClient().deleteTopics(batch, options).topicNameValues()),
+                UnknownTopicOrPartitionException.class::isInstance);
     }
 
-    public void updateTopicConfig(Map<ConfigResource, Collection<AlterConfigOp>> configs) {
-        try (final AdminClient adminClient = buildAdminClient()) {
-            adminClient.incrementalAlterConfigs(configs).all().get();
-        } catch (InterruptedException | ExecutionException ex) {
-            throw new KafkaExecutionException("Error thrown when attempting to update a Kafka topic config", ex.getMessage());
+    public Map<ConfigResource, CompletableFuture<Void>> updateTopicConfigs(Map<ConfigResource, Collection<AlterConfigOp>> configs) {
+        if (configs.isEmpty()) {
+            return Collections.emptyMap();
         }
+        return retrier.submit(configs.keySet(), batch -> {
+            Map<ConfigResource, Collection<AlterConfigOp>> request = new LinkedHashMap<>();
+            batch.forEach(resource -> request.put(resource, configs.get(resource)));
+            return observe(getAdminClient().incrementalAlterConfigs(request).values());
+        });
+    }
+
+    public CompletableFuture<List<TopicListing>> getTopics() {
+        return toCompletableFuture(getAdminClient().listTopics().listings(), "Error thrown when attempting to list Kafka topics")
+                .thenApply(ArrayList::new);
+    }
+
+    public CompletableFuture<Map<ConfigResource, Config>> describeConfigsForTopics(List<String> topicNames, int chunkSize) {
+        List<CompletableFuture<Map<ConfigResource, Config>>> futures = new ArrayList<>();
+        for (List<String> chunk : HelperUtil.partition(topicNames, chunkSize)) {
+            List<ConfigResource> resources = chunk.stream().map(it -> new ConfigResource(ConfigResource.Type.TOPIC, it)).toList();
+            futures.add(toCompletableFuture(getAdminClient().describeConfigs(resources).all(),
+                    "Error thrown when attempting to describe a Kafka topic configuration"));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            Map<ConfigResource, Config> configs = new HashMap<>();
+            futures.forEach(future -> configs.putAll(future.join()));
+            return configs;
+        });
+    }
+
+    /*
+     * Waits for a future returned by this service and rethrows its KafkaExecutionException, if any.
+     */
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof KafkaExecutionException kafkaExecutionException) {
+                throw kafkaExecutionException;
+            }
+            throw new KafkaExecutionException("Error thrown when waiting for a Kafka admin request", ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new KafkaExecutionException("Interrupted while waiting for a Kafka admin request", ex.getMessage());
+        }
+    }
+
+    public int getRetryCount() {
+        return retrier.getRetryCount();
+    }
+
+    public long getThrottledMillis() {
+        return retrier.getThrottledMillis();
+    }
+
+    public int getAdminClientCount() {
+        return adminClientCount;
+    }
+
+    /*
+     * AdminClient.create returns before any connection is made, so the setup cost is measured from creating the
+     * client to the first response of any request: bootstrapping, the first metadata fetch and that request.
+     */
+    public OptionalLong getFirstResponseMillis() {
+        long nanos = firstResponseNanos.get();
+        return nanos < 0 ? OptionalLong.empty() : OptionalLong.of(TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    @Override
+    public synchronized void close() {
+        if (adminClient != null) {
+            adminClient.close();
+            adminClient = null;
+            OptionalLong firstResponseMillis = getFirstResponseMillis();
+            if (firstResponseMillis.isPresent()) {
+                LOG.info("Closed Kafka admin client; created {} admin client(s) during this run, the first response arrived {} ms after creating it.",
+                        adminClientCount, firstResponseMillis.getAsLong());
+            } else {
+                LOG.info("Closed Kafka admin client; created {} admin client(s) during this run, none received a response.", adminClientCount);
+            }
+        }
+    }
+
+    private <T> CompletableFuture<T> toCompletableFuture(KafkaFuture<T> future, String errorMessage) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        future.whenComplete((value, ex) -> {
+            recordResponse();
+            if (ex != null) {
+                result.completeExceptionally(new KafkaExecutionException(errorMessage, ex.toString()));
+            } else {
+                result.complete(value);
+            }
+        });
+        return result;
+    }
+
+    private <K, V> Map<K, KafkaFuture<V>> observe(Map<K, KafkaFuture<V>> responses) {
+        responses.values().forEach(future -> future.whenComplete((value, ex) -> recordResponse()));
+        return responses;
+    }
+
+    private void recordResponse() {
+        if (firstResponseNanos.get() < 0) {
+            firstResponseNanos.compareAndSet(-1L, System.nanoTime() - adminClientCreatedNanos);
+        }
+    }
+
+    private Map<AclBinding, KafkaFuture<Void>> sendDeleteAcls(Collection<AclBinding> aclBindings) {
+        List<AclBindingFilter> filters = aclBindings.stream().map(AclBinding::toFilter).toList();
+        Map<AclBindingFilter, KafkaFuture<DeleteAclsResult.FilterResults>> results = observe(getAdminClient().deleteAcls(filters).values());
+        Map<AclBinding, KafkaFuture<Void>> map = new HashMap<>();
+        aclBindings.forEach(aclBinding -> map.put(aclBinding, results.get(aclBinding.toFilter()).thenApply(KafkaService::checkFilterResults)));
+        return map;
     }
 
-    public List<TopicListing> getTopics() {
-        try (final AdminClient adminClient = buildAdminClient()) {
-            Collection<TopicListing> topics = adminClient.listTopics().listings().get();
-            return new ArrayList<>(topics);
-        } catch (InterruptedException | ExecutionException ex) {
-            throw new KafkaExecutionException("Error thrown when attempting to list Kafka topics", ex.getMessage());
+    private static Void checkFilterResults(DeleteAclsResult.FilterResults filterResults) {
+        for (DeleteAclsResult.FilterResult filterResult : filterResults.values()) {
+            if (filterResult.exception() != null) {
+                throw filterResult.exception();
+            }
         }
+        return null;
     }
 
-    public Map<ConfigResource, Config> describeConfigsForTopics(List<String> topicNames) {
-        try (final AdminClient adminClient = buildAdminClient()) {
-            List<ConfigResource> resources = topicNames.stream().map(it -> new ConfigResource(ConfigResource.Type.TOPIC, it)).toList();
-            return adminClient.describeConfigs(resources).all().get();
-        } catch (InterruptedException | ExecutionException ex) {
-            throw new KafkaExecutionException("Error thrown when attempting to describe a Kafka topic configuration", ex.getMessage());
+    /*
+     * The admin client is thread-safe and holds the broker connections, so it is created on first use and shared
+     * by every call until this service is closed.
+     */
+    private synchronized AdminClient getAdminClient() {
+        if (adminClient == null) {
+            adminClient = buildAdminClient();
         }
+        return adminClient;
     }
 
     private AdminClient buildAdminClient() {
         try {
-            return AdminClient.create(config.getConfig());
+            adminClientCreatedNanos = System.nanoTime();
+            AdminClient client = AdminClient.create(config.getConfig());
+            adminClientCount++;
+            return client;
         } catch (KafkaException ex) {
             throw new KafkaExecutionException("Error thrown when creating Kafka admin client", ex.getCause().getMessage());
         }
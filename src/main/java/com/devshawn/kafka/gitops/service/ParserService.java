@@ -3,65 +3,112 @@ package com.devshawn.kafka.gitops.service;
 import com.devshawn.kafka.gitops.domain.state.DesiredStateFile;
 import com.devshawn.kafka.gitops.domain.state.settings.Settings;
 import com.devshawn.kafka.gitops.exception.ValidationException;
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.devshawn.kafka.gitops.util.HelperUtil;
+import com.devshawn.kafka.gitops.util.MapperUtil;
 import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
 import com.fasterxml.jackson.databind.exc.ValueInstantiationException;
-import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
-import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.nio.file.Paths;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 public class ParserService {
 
     private static final Logger LOG = LoggerFactory.getLogger(ParserService.class);
 
-    private final ObjectMapper objectMapper;
+    private static final String GLOB_CHARACTERS = "*?[{";
+    private static final List<String> YAML_EXTENSIONS = List.of(".yaml", ".yml");
 
     private final File file;
 
+    private final StateFileCache stateFileCache;
+
+    private final Map<String, Map<String, String>> sourceFiles = new HashMap<>();
+
     public ParserService(File file) {
-        this.objectMapper = new ObjectMapper(new YAMLFactory());
-        objectMapper.enable(DeserializationFeature.FAIL_ON_READING_DUP_TREE_KEY);
-        objectMapper.enable(JsonParser.Feature.STRICT_DUPLICATE_DETECTION);
-        objectMapper.registerModule(new Jdk8Module());
+        this(file, null);
+    }
+
+    /*
+     * With a cache directory, parsed state files are cached by content hash and shared by every command run
+     * against the same directory.
+     */
+    public ParserService(File file, File cacheDirectory) {
+        this.stateFileCache = cacheDirectory != null ? new StateFileCache(cacheDirectory) : null;
         this.file = file;
     }
 
+    /*
+     * Each entry of settings.files is a file, a directory of YAML files or a glob pattern, relative to the state
+     * file. Every matching file is parsed concurrently and merged in path order. As before, a resource in an
+     * external file replaces one of the same name in the state file itself; a resource defined in more than one
+     * external file is rejected.
+     */
     public DesiredStateFile parseStateFile() {
         DesiredStateFile desiredStateFile = parseStateFile(file);
         return desiredStateFile.getSettings().flatMap(Settings::getFiles).map(settingsFiles -> {
-            DesiredStateFile.Builder builder = new DesiredStateFile.Builder().mergeFrom(desiredStateFile);
-            settingsFiles.getServices()
-                    .map(services -> loadExternalFile(services, "Services"))
-                    .ifPresent(servicesFile -> builder.putAllServices(servicesFile.getServices()));
-
-            settingsFiles.getTopics()
-                    .map(topics -> loadExternalFile(topics, "Topics"))
-                    .ifPresent(topicsFile -> builder.putAllTopics(topicsFile.getTopics()));
+            List<Path> servicesFiles = settingsFiles.getServices().map(it -> resolveExternalFiles(it, "Services")).orElse(List.of());
+            List<Path> topicsFiles = settingsFiles.getTopics().map(it -> resolveExternalFiles(it, "Topics")).orElse(List.of());
+            List<Path> usersFiles = settingsFiles.getUsers().map(it -> resolveExternalFiles(it, "Users")).orElse(List.of());
 
-            settingsFiles.getUsers()
-                    .map(users -> loadExternalFile(users, "Users"))
-                    .ifPresent(usersFile -> builder.putAllUsers(usersFile.getUsers()));
+            Set<Path> externalFiles = new LinkedHashSet<>();
+            externalFiles.addAll(servicesFiles);
+            externalFiles.addAll(topicsFiles);
+            externalFiles.addAll(usersFiles);
+            Map<Path, DesiredStateFile> parsedFiles = loadExternalFiles(externalFiles);
 
-            return builder.build();
+            return new DesiredStateFile.Builder()
+                    .mergeFrom(desiredStateFile)
+                    .clearServices()
+                    .putAllServices(merge("services", desiredStateFile.getServices(), servicesFiles, parsedFiles, DesiredStateFile::getServices))
+                    .clearTopics()
+                    .putAllTopics(merge("topics", desiredStateFile.getTopics(), topicsFiles, parsedFiles, DesiredStateFile::getTopics))
+                    .clearUsers()
+                    .putAllUsers(merge("users", desiredStateFile.getUsers(), usersFiles, parsedFiles, DesiredStateFile::getUsers))
+                    .build();
         }).orElse(desiredStateFile);
     }
 
+    /*
+     * Returns the external file a resource of the given section (services, topics or users) was loaded from, as a
+     * path relative to the state file. Resources defined in the state file itself have no entry.
+     */
+    public Optional<String> getSourceFile(String section, String name) {
+        return Optional.ofNullable(sourceFiles.getOrDefault(section, Map.of()).get(name));
+    }
+
     public DesiredStateFile parseStateFile(File stateFile) {
         LOG.info("Parsing desired state file...");
 
         try {
-            return objectMapper.readValue(stateFile, DesiredStateFile.class);
+            if (stateFileCache == null) {
+                return MapperUtil.getStateFileReader().readValue(stateFile);
+            }
+            return readThroughCache(stateFile);
         } catch (ValueInstantiationException ex) {
             List<String> fields = getYamlFields(ex);
             String joinedFields = String.join(" -> ", fields);
@@ -81,23 +128,149 @@ public class ParserService {
             String message = ex.getCause() != null ? ex.getCause().getMessage().split("\n")[0] : ex.getMessage().split("\n")[0];
             String joinedFields = String.join(" -> ", fields);
             throw new ValidationException(String.format("%s in state file definition: %s", message, joinedFields));
-        } catch (FileNotFoundException ex) {
+        } catch (FileNotFoundException | NoSuchFileException ex) {
             throw new ValidationException("The specified state file could not be found.");
         } catch (IOException ex) {
             throw new ValidationException(String.format("Invalid state file. Unknown error: %s", ex.getMessage()));
         }
     }
 
-    private DesiredStateFile loadExternalFile(String fileName, String type) {
-        File externalFile = getAdditionalFile(fileName);
-        if (!externalFile.exists()) {
+    private DesiredStateFile readThroughCache(File stateFile) throws IOException {
+        byte[] content = Files.readAllBytes(stateFile.toPath());
+        String contentHash = HelperUtil.sha256(content);
+        Optional<DesiredStateFile> cached = stateFileCache.get(contentHash);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        DesiredStateFile desiredStateFile = MapperUtil.getStateFileReader().readValue(content);
+        stateFileCache.put(contentHash, desiredStateFile);
+        return desiredStateFile;
+    }
+
+    /*
+     * YAML parsing is CPU-bound, so the external files are parsed at the same time on a bounded pool that shares
+     * one state file reader. If several files are invalid, the error of the first one in path order is
+     * reported, as if they had been parsed one after another.
+     */
+    private Map<Path, DesiredStateFile> loadExternalFiles(Collection<Path> externalFiles) {
+        if (externalFiles.isEmpty()) {
+            return Map.of();
+        }
+
+        int threads = Math.min(externalFiles.size(), Runtime.getRuntime().availableProcessors());
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            Map<Path, CompletableFuture<DesiredStateFile>> futures = new LinkedHashMap<>();
+            externalFiles.forEach(path -> futures.put(path, CompletableFuture.supplyAsync(() -> loadExternalFile(path), executor)));
+
+            Map<Path, DesiredStateFile> parsedFiles = new HashMap<>();
+            futures.forEach((path, future) -> parsedFiles.put(path, join(future)));
+            return parsedFiles;
+        }
+    }
+
+    private DesiredStateFile loadExternalFile(Path path) {
+        try {
+            return parseStateFile(path.toFile());
+        } catch (ValidationException ex) {
+            throw new ValidationException(String.format("%s (file: %s)", ex.getMessage(), getRelativePath(path)));
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw ex;
+        }
+    }
+
+    private <T> Map<String, T> merge(String section, Map<String, T> stateFileEntries, List<Path> externalFiles,
+                                     Map<Path, DesiredStateFile> parsedFiles, Function<DesiredStateFile, Map<String, T>> entries) {
+        Map<String, T> merged = new LinkedHashMap<>(stateFileEntries);
+        Map<String, String> sources = new HashMap<>();
+        for (Path path : externalFiles) {
+            String source = getRelativePath(path);
+            entries.apply(parsedFiles.get(path)).forEach((name, details) -> {
+                String previous = sources.get(name);
+                if (previous != null) {
+                    throw new ValidationException(String.format("Duplicate definition of %s -> %s in '%s' and '%s'.", section, name, previous, source));
+                }
+                sources.put(name, source);
+                merged.put(name, details);
+            });
+        }
+        sourceFiles.put(section, sources);
+        return merged;
+    }
+
+    private List<Path> resolveExternalFiles(String fileName, String type) {
+        Path baseDirectory = getBaseDirectory();
+        if (isGlob(fileName)) {
+            List<Path> matches = findFiles(getGlobRoot(baseDirectory, fileName), getGlobMatcher(baseDirectory, fileName));
+            if (matches.isEmpty()) {
+                throw new ValidationException(String.format("%s file pattern '%s' did not match any files.", type, fileName));
+            }
+            return matches;
+        }
+
+        Path path = baseDirectory.resolve(fileName);
+        if (Files.isDirectory(path)) {
+            return findFiles(path, it -> YAML_EXTENSIONS.stream().anyMatch(extension -> it.getFileName().toString().endsWith(extension)));
+        }
+        if (!Files.exists(path)) {
             throw new ValidationException(String.format("%s file '%s' could not be found.", type, fileName));
         }
-        return parseStateFile(externalFile);
+        return List.of(path);
+    }
+
+    private static List<Path> findFiles(Path directory, Predicate<Path> filter) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(Files::isRegularFile).filter(filter).sorted().toList();
+        } catch (IOException ex) {
+            throw new ValidationException(String.format("Could not list state files in '%s': %s", directory, ex.getMessage()));
+        }
+    }
+
+    /*
+     * Only the directory before the first wildcard is walked. A double-star directory segment also matches no
+     * directory at all, so files directly in the directory before it are included as well.
+     */
+    private static Path getGlobRoot(Path baseDirectory, String pattern) {
+        Path root = baseDirectory;
+        for (String segment : pattern.split("/")) {
+            if (isGlob(segment)) {
+                break;
+            }
+            root = root.resolve(segment);
+        }
+        return root;
+    }
+
+    private static Predicate<Path> getGlobMatcher(Path baseDirectory, String pattern) {
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+        PathMatcher shallowMatcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern.replace("**/", ""));
+        return path -> {
+            Path relativePath = baseDirectory.relativize(path);
+            return matcher.matches(relativePath) || shallowMatcher.matches(relativePath);
+        };
+    }
+
+    private static boolean isGlob(String fileName) {
+        return fileName.chars().anyMatch(it -> GLOB_CHARACTERS.indexOf(it) >= 0);
+    }
+
+    private Path getBaseDirectory() {
+        return file.getAbsoluteFile().getParentFile().toPath();
     }
 
-    private File getAdditionalFile(String fileName) {
-        return new File(Paths.get(file.getAbsoluteFile().getParent(), fileName).toString());
+    private String getRelativePath(Path path) {
+        return getBaseDirectory().relativize(path).toString();
     }
 
     private List<String> getYamlFields(JsonMappingException ex) {
@@ -0,0 +1,151 @@
+package com.devshawn.kafka.gitops.service;
+
+import com.devshawn.kafka.gitops.config.ManagerConfig;
+import com.devshawn.kafka.gitops.domain.cache.CachedTopic;
+import com.devshawn.kafka.gitops.domain.cache.PlanCache;
+import com.devshawn.kafka.gitops.domain.cluster.ClusterState;
+import com.devshawn.kafka.gitops.domain.plan.DesiredPlan;
+import com.devshawn.kafka.gitops.domain.state.DesiredState;
+import com.devshawn.kafka.gitops.domain.state.TopicDetails;
+import com.devshawn.kafka.gitops.enums.PlanAction;
+import com.devshawn.kafka.gitops.util.HelperUtil;
+import com.devshawn.kafka.gitops.util.LogUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.Uuid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.BiPredicate;
+
+/*
+ * Remembers which existing topics already matched their desired configs. The cache is written whenever a cache
+ * directory is set, but only read when a plan opts in with --trust-config-cache: a cached topic is then not
+ * described again until its desired configs change or it is recreated with a new topic id, and its configs are
+ * assumed to still equal the desired ones. The topic id does not change when configs are altered outside of
+ * kafka-gitops, so such drift is not detected for cached topics; plans that read the cache print a warning.
+ */
+public class PlanCacheService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PlanCacheService.class);
+
+    private static final String PLAN_CACHE_FILE = "plan-cache.json";
+
+    private final ManagerConfig managerConfig;
+    private final ObjectMapper objectMapper;
+
+    public PlanCacheService(ManagerConfig managerConfig, ObjectMapper objectMapper) {
+        this.managerConfig = managerConfig;
+        this.objectMapper = objectMapper;
+    }
+
+    public PlanCache load() {
+        PlanCache emptyCache = new PlanCache.Builder().setVersion(PlanCache.CURRENT_VERSION).build();
+        Optional<File> cacheFile = getCacheFile();
+        if (cacheFile.isEmpty() || managerConfig.isFullPlanRequested() || !managerConfig.isConfigCacheTrusted()
+                || !cacheFile.get().exists()) {
+            return emptyCache;
+        }
+
+        try {
+            PlanCache planCache = objectMapper.readValue(cacheFile.get(), PlanCache.class);
+            if (planCache.getVersion() != PlanCache.CURRENT_VERSION) {
+                LOG.info("[PLAN] Ignoring plan cache {} with version {}", cacheFile.get(), planCache.getVersion());
+                return emptyCache;
+            }
+            return planCache;
+        } catch (IOException ex) {
+            LOG.warn("Ignoring unreadable plan cache {}: {}", cacheFile.get(), ex.getMessage());
+            return emptyCache;
+        }
+    }
+
+    public BiPredicate<String, String> isTopicConfigCached(PlanCache planCache, DesiredState desiredState) {
+        return (topicName, topicId) -> {
+            CachedTopic cachedTopic = planCache.getTopics().get(topicName);
+            TopicDetails topicDetails = desiredState.getTopics().get(topicName);
+            return cachedTopic != null && topicDetails != null
+                    && cachedTopic.getTopicId().equals(topicId)
+                    && cachedTopic.getConfigHash().equals(hashConfigs(topicDetails));
+        };
+    }
+
+    /*
+     * Fills in the configs of cached topics that the cluster state source left out.
+     */
+    public ClusterState applyCache(PlanCache planCache, DesiredState desiredState, ClusterState clusterState) {
+        BiPredicate<String, String> isCached = isTopicConfigCached(planCache, desiredState);
+        ClusterState.Builder builder = new ClusterState.Builder().mergeFrom(clusterState);
+        int existingTopics = 0;
+        int hits = 0;
+        for (Map.Entry<String, TopicDetails> entry : desiredState.getTopics().entrySet()) {
+            String topicId = clusterState.getTopicIds().get(entry.getKey());
+            if (topicId == null) {
+                continue;
+            }
+            existingTopics++;
+            if (!clusterState.getTopicConfigs().containsKey(entry.getKey()) && isCached.test(entry.getKey(), topicId)) {
+                builder.putTopicConfigs(entry.getKey(), entry.getValue().getConfigs());
+                hits++;
+            }
+        }
+
+        if (getCacheFile().isPresent()) {
+            LOG.info("[PLAN] Plan cache reused {} of {} existing topic(s) ({}% hit ratio)", hits, existingTopics,
+                    existingTopics == 0 ? 0 : hits * 100 / existingTopics);
+        }
+        if (hits > 0) {
+            LogUtil.printPlanCacheWarning(hits);
+        }
+        return builder.build();
+    }
+
+    public void save(DesiredState desiredState, ClusterState clusterState, DesiredPlan desiredPlan) {
+        Optional<File> cacheFile = getCacheFile();
+        if (cacheFile.isEmpty()) {
+            return;
+        }
+
+        PlanCache.Builder planCache = new PlanCache.Builder().setVersion(PlanCache.CURRENT_VERSION);
+        desiredPlan.getTopicPlans().stream()
+                .filter(it -> it.getAction() == PlanAction.NO_CHANGE)
+                .forEach(topicPlan -> {
+                    String topicId = clusterState.getTopicIds().get(topicPlan.getName());
+                    TopicDetails topicDetails = desiredState.getTopics().get(topicPlan.getName());
+                    if (topicId != null && !topicId.equals(Uuid.ZERO_UUID.toString()) && topicDetails != null) {
+                        planCache.putTopics(topicPlan.getName(), new CachedTopic.Builder()
+                                .setConfigHash(hashConfigs(topicDetails))
+                                .setTopicId(topicId)
+                                .build());
+                    }
+                });
+
+        try {
+            File cacheDirectory = cacheFile.get().getParentFile();
+            if (!cacheDirectory.isDirectory() && !cacheDirectory.mkdirs()) {
+                throw new IOException(String.format("Could not create cache directory %s", cacheDirectory));
+            }
+            objectMapper.writeValue(cacheFile.get(), planCache.build());
+        } catch (IOException ex) {
+            LOG.warn("Could not write plan cache {}: {}", cacheFile.get(), ex.getMessage());
+        }
+    }
+
+    private String hashConfigs(TopicDetails topicDetails) {
+        try {
+            return HelperUtil.sha256(objectMapper.writeValueAsString(new TreeMap<>(topicDetails.getConfigs())));
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private Optional<File> getCacheFile() {
+        return managerConfig.getCacheDirectory().map(directory -> new File(directory, PLAN_CACHE_FILE));
+    }
+}
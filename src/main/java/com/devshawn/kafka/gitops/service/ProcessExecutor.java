@@ -0,0 +1,142 @@
+package com.devshawn.kafka.gitops.service;
+
+import com.devshawn.kafka.gitops.domain.process.ProcessResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Runs external tools. Stdout and stderr are drained at the same time on virtual threads, so a tool writing a lot
+ * to either stream never blocks on a full pipe, and only the first bytes of each stream are kept. A process that
+ * runs past its deadline is killed.
+ */
+public class ProcessExecutor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProcessExecutor.class);
+
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+
+    private final Duration timeout;
+    private final int maxOutputBytes;
+
+    public ProcessExecutor(Duration timeout, int maxOutputBytes) {
+        this.timeout = timeout;
+        this.maxOutputBytes = maxOutputBytes;
+    }
+
+    /*
+     * Returns the result of every process that exits in time, whatever its exit code. Throws an IOException if
+     * the process cannot be started or misses its deadline, and an InterruptedIOException if the calling thread
+     * is interrupted while waiting.
+     */
+    public ProcessResult execute(List<String> command) throws IOException {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).start();
+        process.getOutputStream().close();
+
+        try (ExecutorService drainers = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<BoundedOutput> stdout = CompletableFuture.supplyAsync(() -> drain(process.getInputStream()), drainers);
+            CompletableFuture<BoundedOutput> stderr = CompletableFuture.supplyAsync(() -> drain(process.getErrorStream()), drainers);
+
+            if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                kill(process);
+                throw new IOException(String.format("%s did not finish within %s ms.", command.get(0), timeout.toMillis()));
+            }
+
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            LOG.info("Ran {} in {} ms with exit code {}", command.get(0), elapsedMillis, process.exitValue());
+            BoundedOutput out = join(stdout);
+            BoundedOutput err = join(stderr);
+            return new ProcessResult.Builder()
+                    .setExitCode(process.exitValue())
+                    .setStdout(out.toString())
+                    .setStderr(err.toString())
+                    .setTruncated(out.isTruncated() || err.isTruncated())
+                    .setElapsedMillis(elapsedMillis)
+                    .build();
+        } catch (InterruptedException ex) {
+            kill(process);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(String.format("Interrupted while waiting for %s.", command.get(0)));
+        }
+    }
+
+    /*
+     * Children are killed too, since they may hold the output pipes open and keep the drainers waiting.
+     */
+    private static void kill(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    /*
+     * Reads until the stream ends, which happens once the process exits or is killed.
+     */
+    private BoundedOutput drain(InputStream inputStream) {
+        BoundedOutput output = new BoundedOutput(maxOutputBytes);
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        try (inputStream) {
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                output.write(buffer, read);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return output;
+    }
+
+    private static BoundedOutput join(CompletableFuture<BoundedOutput> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    private static final class BoundedOutput {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final int limit;
+        private boolean truncated = false;
+
+        private BoundedOutput(int limit) {
+            this.limit = limit;
+        }
+
+        private void write(byte[] buffer, int length) {
+            int kept = Math.min(length, limit - bytes.size());
+            if (kept > 0) {
+                bytes.write(buffer, 0, kept);
+            }
+            if (kept < length) {
+                truncated = true;
+            }
+        }
+
+        private boolean isTruncated() {
+            return truncated;
+        }
+
+        @Override
+        public String toString() {
+            return bytes.toString(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.devshawn.kafka.gitops.service;
+
+import com.devshawn.kafka.gitops.domain.confluent.ServiceAccount;
+
+import java.util.List;
+
+/*
+ * Lists and creates Confluent Cloud service accounts. Implementations must be safe to call from several threads.
+ */
+public interface ServiceAccountProvider {
+
+    List<ServiceAccount> getServiceAccounts();
+
+    /*
+     * Users get their account name prefixed with "user-".
+     */
+    ServiceAccount createServiceAccount(String name, boolean isUser);
+}
@@ -0,0 +1,53 @@
+package com.devshawn.kafka.gitops.service;
+
+import com.devshawn.kafka.gitops.config.ManagerConfig;
+import com.devshawn.kafka.gitops.domain.cluster.ClusterState;
+import com.devshawn.kafka.gitops.domain.state.DesiredState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+/*
+ * Reads the actual state from a snapshot file instead of the cluster. A snapshot holds every topic and ACL, so
+ * the same filters as a live fetch are applied here.
+ */
+public class SnapshotClusterStateSource implements ClusterStateSource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SnapshotClusterStateSource.class);
+
+    private final ManagerConfig managerConfig;
+    private final ClusterSnapshotService clusterSnapshotService;
+    private final File snapshotFile;
+
+    public SnapshotClusterStateSource(ManagerConfig managerConfig, ClusterSnapshotService clusterSnapshotService, File snapshotFile) {
+        this.managerConfig = managerConfig;
+        this.clusterSnapshotService = clusterSnapshotService;
+        this.snapshotFile = snapshotFile;
+    }
+
+    @Override
+    public ClusterState fetchClusterState(DesiredState desiredState, BiPredicate<String, String> isTopicConfigCached) {
+        ClusterState snapshot = clusterSnapshotService.readSnapshot(snapshotFile);
+        LOG.info("[PLAN] Read {} topics and {} ACLs from snapshot {}", snapshot.getTopics().size(), snapshot.getAcls().size(), snapshotFile);
+
+        ClusterState.Builder clusterState = new ClusterState.Builder();
+        if (!managerConfig.isSkipTopicsDisabled()) {
+            clusterState.addAllTopics(snapshot.getTopics())
+                    .putAllTopicIds(snapshot.getTopicIds())
+                    .putAllTopicConfigs(snapshot.getTopicConfigs());
+        }
+
+        if (!managerConfig.isSkipAclsDisabled()) {
+            if (managerConfig.isManagedPrincipalsOnly()) {
+                Set<String> principals = desiredState.toAclPrincipals();
+                snapshot.getAcls().stream().filter(it -> principals.contains(it.getPrincipal())).forEach(clusterState::addAcls);
+            } else {
+                clusterState.addAllAcls(snapshot.getAcls());
+            }
+        }
+        return clusterState.build();
+    }
+}
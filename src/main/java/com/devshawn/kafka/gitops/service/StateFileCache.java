@@ -0,0 +1,85 @@
+package com.devshawn.kafka.gitops.service;
+
+import com.devshawn.kafka.gitops.domain.state.DesiredStateFile;
+import com.devshawn.kafka.gitops.util.MapperUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/*
+ * Parsed state files in Smile, keyed by the SHA-256 of the file content, so a file that has not changed since any
+ * earlier run is not parsed again. A changed file has a new key, and unreadable entries are ignored.
+ */
+class StateFileCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StateFileCache.class);
+
+    /*
+     * Bump when the state file model changes, so entries written by another version are never read.
+     */
+    private static final int CACHE_VERSION = 1;
+    private static final String STATE_CACHE_DIRECTORY = "state-cache";
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+
+    StateFileCache(File cacheDirectory) {
+        this.directory = cacheDirectory.toPath().resolve(STATE_CACHE_DIRECTORY);
+        this.objectMapper = MapperUtil.getSmileMapper();
+    }
+
+    Optional<DesiredStateFile> get(String contentHash) {
+        Path entry = getEntry(contentHash);
+        if (!Files.exists(entry)) {
+            return Optional.empty();
+        }
+        try {
+            DesiredStateFile desiredStateFile = objectMapper.readValue(entry.toFile(), DesiredStateFile.class);
+            LOG.info("Using cached state file {}", entry.getFileName());
+            return Optional.of(desiredStateFile);
+        } catch (IOException | RuntimeException ex) {
+            LOG.warn("Ignoring unreadable state file cache entry {}: {}", entry, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /*
+     * Only values that decode back to an equal value are stored. Entries are written to a temporary file first, so
+     * concurrent runs sharing the directory never see a partial entry.
+     */
+    void put(String contentHash, DesiredStateFile desiredStateFile) {
+        try {
+            byte[] content = objectMapper.writeValueAsBytes(desiredStateFile);
+            if (!desiredStateFile.equals(objectMapper.readValue(content, DesiredStateFile.class))) {
+                LOG.info("Not caching state file {}; it does not round-trip", contentHash);
+                return;
+            }
+            Files.createDirectories(directory);
+            Path temporaryFile = Files.createTempFile(directory, contentHash, ".tmp");
+            Files.write(temporaryFile, content);
+            move(temporaryFile, getEntry(contentHash));
+        } catch (IOException | RuntimeException ex) {
+            LOG.warn("Could not write state file cache entry {}: {}", contentHash, ex.getMessage());
+        }
+    }
+
+    private Path getEntry(String contentHash) {
+        return directory.resolve(String.format("v%s-%s.smile", CACHE_VERSION, contentHash));
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
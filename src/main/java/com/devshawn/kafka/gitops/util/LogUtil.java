@@ -12,6 +12,8 @@ import com.devshawn.kafka.gitops.exception.KafkaExecutionException;
 import com.devshawn.kafka.gitops.exception.WritePlanOutputException;
 import picocli.CommandLine;
 
+import java.util.List;
+
 public final class LogUtil {
     private LogUtil() {
     }
@@ -131,6 +133,16 @@ public final class LogUtil {
         System.out.println("Successfully applied.\n");
     }
 
+    public static void printApplyFailure(String message) {
+        System.out.printf("[%s] Failed to apply: %s%n%n", red("ERROR"), message);
+    }
+
+    public static void printApplySkipped(List<String> resources) {
+        System.out.printf("[%s] Skipped %s resource(s) because an earlier request failed:%n", yellow("WARNING"), resources.size());
+        resources.forEach(it -> System.out.printf("  %s%n", it));
+        System.out.println();
+    }
+
     /*
      * Helpers
      */
@@ -175,6 +187,16 @@ public final class LogUtil {
 
     }
 
+    public static void printPlanCacheWarning(int cachedTopics) {
+        System.out.printf("[%s] The configs of %s topic(s) were taken from the plan cache; config changes made outside of kafka-gitops are not detected for them. Run without --trust-config-cache to compare every topic.%n%n",
+                yellow("WARNING"), cachedTopics);
+    }
+
+    public static void printManagedPrincipalsWarning() {
+        System.out.printf("[%s] Only ACLs of principals in the desired state file are compared. ACLs of principals removed from the file are not deleted; run without --managed-principals-only to clean them up.%n%n",
+                yellow("WARNING"));
+    }
+
     public static void printNoChangesMessage() {
         System.out.printf("[%s] There are no necessary changes; the actual state matches the desired state.%n", green("SUCCESS"));
     }
@@ -184,6 +206,13 @@ public final class LogUtil {
                 planOverview.getAdd(), planOverview.getUpdate(), planOverview.getRemove());
     }
 
+    public static void printApplyRetries(int retryCount, long throttledMillis) {
+        if (retryCount > 0) {
+            System.out.printf("[%s] Retried %s resource(s) after retriable errors; %s ms were spent throttled by broker quotas.%n%n",
+                    yellow("WARNING"), retryCount, throttledMillis);
+        }
+    }
+
     public static void printSimpleSuccess(String message) {
         System.out.printf("[%s] %s%n%n", green("SUCCESS"), message);
     }
@@ -218,6 +247,11 @@ public final class LogUtil {
         }
     }
 
+    public static void printSnapshotError(String message) {
+        System.out.printf("[%s] %s%n%n", red("ERROR"), message);
+        System.out.printf("[%s] An error has occurred while creating the snapshot. No snapshot was written.%n", red("ERROR"));
+    }
+
     public static void printPlanOutputError(WritePlanOutputException ex) {
         System.out.printf("[%s] %s%n", red("ERROR"), ex.getMessage());
     }
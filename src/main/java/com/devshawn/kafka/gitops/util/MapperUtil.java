@@ -0,0 +1,85 @@
+package com.devshawn.kafka.gitops.util;
+
+import com.devshawn.kafka.gitops.domain.plan.AclPlan;
+import com.devshawn.kafka.gitops.domain.plan.TopicPlan;
+import com.devshawn.kafka.gitops.domain.state.DesiredStateFile;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/*
+ * The ObjectMappers, readers and writers shared by the whole process. Mappers are expensive to create and cache
+ * their (de)serializers, so every service uses these instead of building its own. Blackbird replaces reflective
+ * calls to the FreeBuilder builders and getters with generated lambdas. Readers created for a type resolve their
+ * deserializer up front, so the registry is warm before the first file is read.
+ */
+public final class MapperUtil {
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper()
+            .enable(JsonParser.Feature.ALLOW_UNQUOTED_FIELD_NAMES)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .registerModule(new Jdk8Module())
+            .registerModule(new BlackbirdModule());
+
+    private static final ObjectMapper YAML_MAPPER = new ObjectMapper(new YAMLFactory())
+            .enable(DeserializationFeature.FAIL_ON_READING_DUP_TREE_KEY)
+            .enable(JsonParser.Feature.STRICT_DUPLICATE_DETECTION)
+            .registerModule(new Jdk8Module())
+            .registerModule(new BlackbirdModule());
+
+    private static final ObjectMapper SMILE_MAPPER = new ObjectMapper(new SmileFactory())
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .registerModule(new Jdk8Module())
+            .registerModule(new BlackbirdModule());
+
+    private static final ObjectReader STATE_FILE_READER = YAML_MAPPER.readerFor(DesiredStateFile.class);
+    private static final ObjectReader TOPIC_PLAN_READER = JSON_MAPPER.readerFor(TopicPlan.class);
+    private static final ObjectReader ACL_PLAN_READER = JSON_MAPPER.readerFor(AclPlan.class);
+    private static final ObjectWriter PLAN_ENTRY_WRITER = JSON_MAPPER.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private MapperUtil() {
+    }
+
+    public static ObjectMapper getJsonMapper() {
+        return JSON_MAPPER;
+    }
+
+    public static ObjectMapper getYamlMapper() {
+        return YAML_MAPPER;
+    }
+
+    /*
+     * Binary mapper for the parsed state file cache.
+     */
+    public static ObjectMapper getSmileMapper() {
+        return SMILE_MAPPER;
+    }
+
+    public static ObjectReader getStateFileReader() {
+        return STATE_FILE_READER;
+    }
+
+    public static ObjectReader getTopicPlanReader() {
+        return TOPIC_PLAN_READER;
+    }
+
+    public static ObjectReader getAclPlanReader() {
+        return ACL_PLAN_READER;
+    }
+
+    /*
+     * Writes single plan entries into a generator that is flushed once at the end.
+     */
+    public static ObjectWriter getPlanEntryWriter() {
+        return PLAN_ENTRY_WRITER;
+    }
+}
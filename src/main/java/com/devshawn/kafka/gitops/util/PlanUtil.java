@@ -3,6 +3,7 @@ package com.devshawn.kafka.gitops.util;
 import com.devshawn.kafka.gitops.domain.plan.DesiredPlan;
 import com.devshawn.kafka.gitops.domain.plan.PlanOverview;
 import com.devshawn.kafka.gitops.enums.PlanAction;
+import com.devshawn.kafka.gitops.manager.PlanSource;
 
 import java.util.EnumMap;
 import java.util.EnumSet;
@@ -24,6 +25,26 @@ public class PlanUtil {
         return buildPlanOverview(map);
     }
 
+    /*
+     * Reads every entry of the plan, so a malformed plan file fails here before anything is applied.
+     */
+    public static PlanOverview getOverview(PlanSource planSource,
+                                           boolean deleteDisabled,
+                                           boolean skipAclsDisabled,
+                                           boolean skipTopicsDisabled) {
+        EnumMap<PlanAction, Long> map = getPlanActionMap();
+        planSource.forEach(topicPlan -> {
+            if (!skipTopicsDisabled) {
+                addToMap(map, topicPlan.getAction(), deleteDisabled);
+            }
+        }, aclPlan -> {
+            if (!skipAclsDisabled) {
+                addToMap(map, aclPlan.getAction(), deleteDisabled);
+            }
+        });
+        return buildPlanOverview(map);
+    }
+
     public static PlanOverview getTopicPlanOverview(DesiredPlan desiredPlan, boolean deleteDisabled) {
         EnumMap<PlanAction, Long> map = getPlanActionMap();
         desiredPlan.getTopicPlans().forEach(it -> addToMap(map, it.getAction(), deleteDisabled));
@@ -0,0 +1,60 @@
+package com.devshawn.kafka.gitops.util;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/*
+ * Matches values against a fixed set of prefixes using a character trie, so a lookup costs one step per
+ * character of the value regardless of how many prefixes there are. Counts how many values each prefix matched.
+ */
+public final class PrefixMatcher {
+
+    private final Node root = new Node();
+    private final Map<String, Long> matchCounts = new LinkedHashMap<>();
+
+    public PrefixMatcher(Collection<String> prefixes) {
+        for (String prefix : prefixes) {
+            Node node = root;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), it -> new Node());
+            }
+            node.prefix = prefix;
+            matchCounts.putIfAbsent(prefix, 0L);
+        }
+    }
+
+    public boolean isEmpty() {
+        return matchCounts.isEmpty();
+    }
+
+    /*
+     * Returns the shortest prefix of the value that is in this matcher, if any.
+     */
+    public Optional<String> match(String value) {
+        Node node = root;
+        for (int i = 0; node != null; i++) {
+            if (node.prefix != null) {
+                matchCounts.merge(node.prefix, 1L, Long::sum);
+                return Optional.of(node.prefix);
+            }
+            node = i < value.length() ? node.children.get(value.charAt(i)) : null;
+        }
+        return Optional.empty();
+    }
+
+    public boolean matches(String value) {
+        return match(value).isPresent();
+    }
+
+    public Map<String, Long> getMatchCounts() {
+        return matchCounts;
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private String prefix;
+    }
+}
@@ -0,0 +1,33 @@
+package com.devshawn.kafka.gitops.util;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Spaces permits evenly at a fixed rate. Callers sleep outside the lock, so waiting threads do not block each
+ * other from reserving later permits.
+ */
+public final class RateLimiter {
+
+    private final long intervalNanos;
+    private long nextPermitNanos = System.nanoTime();
+
+    public RateLimiter(int permitsPerSecond) {
+        if (permitsPerSecond < 1) {
+            throw new IllegalArgumentException("The rate must be a positive number of permits per second.");
+        }
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+    }
+
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long permitNanos = Math.max(now, nextPermitNanos);
+            nextPermitNanos = permitNanos + intervalNanos;
+            waitNanos = permitNanos - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.Rule
 import org.junit.contrib.java.lang.system.EnvironmentVariables
 import picocli.CommandLine
 import spock.lang.Specification
+import spock.lang.TempDir
 import spock.lang.Unroll
 
 @Unroll
@@ -12,6 +13,9 @@ class ApplyCommandIntegrationSpec extends Specification {
     @Rule
     EnvironmentVariables environmentVariables
 
+    @TempDir
+    File cacheDirectory
+
     void setup() {
         environmentVariables.set("KAFKA_BOOTSTRAP_SERVERS", "localhost:9092")
         environmentVariables.set("KAFKA_SASL_JAAS_USERNAME", "test")
@@ -193,4 +197,28 @@ class ApplyCommandIntegrationSpec extends Specification {
         System.setOut(oldOut)
     }
 
+    void 'test apply without a plan file writes the plan cache only after a successful apply - #stateFile'() {
+        setup:
+        ByteArrayOutputStream out = new ByteArrayOutputStream()
+        PrintStream oldOut = System.out
+        System.setOut(new PrintStream(out))
+        String file = TestUtils.getResourceFilePath("plans/${stateFile}.yaml")
+        MainCommand mainCommand = new MainCommand()
+        CommandLine cmd = new CommandLine(mainCommand)
+
+        when:
+        int exitCode = cmd.execute("-f", file, "--cache-dir", cacheDirectory.absolutePath, "apply")
+
+        then:
+        exitCode == expectedExitCode
+        new File(cacheDirectory, "plan-cache.json").exists() == cacheWritten
+
+        cleanup:
+        System.setOut(oldOut)
+
+        where:
+        stateFile              | expectedExitCode | cacheWritten
+        "simple"               | 0                | true
+        "invalid-topic-config" | 2                | false
+    }
 }
@@ -1,11 +1,15 @@
 package com.devshawn.kafka.gitops
 
+import com.devshawn.kafka.gitops.domain.cluster.ClusterState
+import com.devshawn.kafka.gitops.service.ClusterSnapshotService
+import com.devshawn.kafka.gitops.util.MapperUtil
 import org.junit.ClassRule
 import org.junit.contrib.java.lang.system.EnvironmentVariables
 import org.skyscreamer.jsonassert.JSONAssert
 import picocli.CommandLine
 import spock.lang.Shared
 import spock.lang.Specification
+import spock.lang.TempDir
 import spock.lang.Unroll
 
 @Unroll
@@ -15,6 +19,9 @@ class PlanCommandIntegrationSpec extends Specification {
     @ClassRule
     EnvironmentVariables environmentVariables
 
+    @TempDir
+    File cacheDirectory
+
     void setupSpec() {
         environmentVariables.set("KAFKA_BOOTSTRAP_SERVERS", "localhost:9092")
         environmentVariables.set("KAFKA_SASL_JAAS_USERNAME", "test")
@@ -315,4 +322,33 @@ class PlanCommandIntegrationSpec extends Specification {
         "no-changes" | false
         "no-changes" | true
     }
+
+    void 'test plan cache is written by live plans only - fromSnapshot: #fromSnapshot'() {
+        setup:
+        ByteArrayOutputStream out = new ByteArrayOutputStream()
+        PrintStream oldOut = System.out
+        System.setOut(new PrintStream(out))
+        File snapshotFile = new File(cacheDirectory, "snapshot.json")
+        new ClusterSnapshotService(MapperUtil.getJsonMapper()).writeSnapshot(snapshotFile, new ClusterState.Builder().build())
+        String file = TestUtils.getResourceFilePath("plans/simple.yaml")
+        MainCommand mainCommand = new MainCommand()
+        CommandLine cmd = new CommandLine(mainCommand)
+        List<String> args = ["-f", file, "--cache-dir", cacheDirectory.absolutePath, "plan"]
+        if (fromSnapshot) {
+            args.addAll(["--from-snapshot", snapshotFile.absolutePath])
+        }
+
+        when:
+        int exitCode = cmd.execute(args as String[])
+
+        then:
+        exitCode == 0
+        new File(cacheDirectory, "plan-cache.json").exists() == !fromSnapshot
+
+        cleanup:
+        System.setOut(oldOut)
+
+        where:
+        fromSnapshot << [true, false]
+    }
 }
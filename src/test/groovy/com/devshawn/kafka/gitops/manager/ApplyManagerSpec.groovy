@@ -0,0 +1,180 @@
+package com.devshawn.kafka.gitops.manager
+
+import com.devshawn.kafka.gitops.config.ManagerConfig
+import com.devshawn.kafka.gitops.domain.plan.DesiredPlan
+import com.devshawn.kafka.gitops.domain.plan.TopicPlan
+import com.devshawn.kafka.gitops.domain.state.TopicDetails
+import com.devshawn.kafka.gitops.enums.PlanAction
+import com.devshawn.kafka.gitops.exception.KafkaExecutionException
+import com.devshawn.kafka.gitops.service.KafkaService
+import org.apache.kafka.clients.admin.AlterConfigOp
+import org.apache.kafka.common.config.ConfigResource
+import org.apache.kafka.common.errors.InvalidReplicationFactorException
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.TimeUnit
+import java.util.function.Function
+
+class ApplyManagerSpec extends Specification {
+
+    PrintStream oldOut
+    ByteArrayOutputStream out
+
+    void setup() {
+        oldOut = System.out
+        out = new ByteArrayOutputStream()
+        System.setOut(new PrintStream(out))
+    }
+
+    void cleanup() {
+        System.setOut(oldOut)
+    }
+
+    void 'test applyTopics sends one request per batch and skips unchanged topics'() {
+        setup:
+        StubKafkaService kafkaService = new StubKafkaService({ String name -> CompletableFuture.completedFuture(null) })
+        ApplyManager applyManager = new ApplyManager(buildManagerConfig(2, 5), kafkaService)
+        DesiredPlan desiredPlan = buildPlan(["topic-a", "topic-b", "topic-c", "topic-d", "topic-e"], ["topic-c"])
+
+        when:
+        applyManager.applyTopics(PlanSource.of(desiredPlan))
+
+        then:
+        kafkaService.createdBatches == [["topic-a", "topic-b"], ["topic-d", "topic-e"]]
+        getPrintedOrder(["topic-a", "topic-b", "topic-d", "topic-e"]) == ["topic-a", "topic-b", "topic-d", "topic-e"]
+        out.toString().count("Successfully applied.") == 4
+    }
+
+    void 'test applyTopics reports results in plan order when batches complete out of order'() {
+        setup:
+        Map<String, Long> delays = ["topic-a": 300L, "topic-b": 200L, "topic-c": 100L]
+        Queue<String> completed = new ConcurrentLinkedQueue<>()
+        StubKafkaService kafkaService = new StubKafkaService({ String name ->
+            CompletableFuture.runAsync({ completed.add(name) }, CompletableFuture.delayedExecutor(delays[name], TimeUnit.MILLISECONDS))
+        })
+        ApplyManager applyManager = new ApplyManager(buildManagerConfig(1, 3), kafkaService)
+
+        when:
+        applyManager.applyTopics(PlanSource.of(buildPlan(["topic-a", "topic-b", "topic-c"], [])))
+
+        then:
+        completed.toList() == ["topic-c", "topic-b", "topic-a"]
+        kafkaService.createdBatches == [["topic-a"], ["topic-b"], ["topic-c"]]
+        getPrintedOrder(["topic-a", "topic-b", "topic-c"]) == ["topic-a", "topic-b", "topic-c"]
+    }
+
+    void 'test applyTopics stops sending batches after a failure and reports the skipped topics'() {
+        setup:
+        StubKafkaService kafkaService = new StubKafkaService({ String name ->
+            name == "topic-b"
+                    ? CompletableFuture.failedFuture(new InvalidReplicationFactorException("Replication factor: 3 larger than available brokers: 1."))
+                    : CompletableFuture.completedFuture(null)
+        })
+        ApplyManager applyManager = new ApplyManager(buildManagerConfig(1, 1), kafkaService)
+
+        when:
+        applyManager.applyTopics(PlanSource.of(buildPlan(["topic-a", "topic-b", "topic-c", "topic-d"], [])))
+
+        then:
+        KafkaExecutionException ex = thrown(KafkaExecutionException)
+        ex.message == "Error thrown when attempting to apply Kafka topics"
+        ex.exceptionMessage.readLines() == [
+                "topic-b: org.apache.kafka.common.errors.InvalidReplicationFactorException: Replication factor: 3 larger than available brokers: 1.",
+                "topic-c: Not applied because an earlier request failed",
+                "topic-d: Not applied because an earlier request failed"
+        ]
+        kafkaService.createdBatches == [["topic-a"], ["topic-b"]]
+        out.toString().count("Successfully applied.") == 1
+        out.toString().contains("Skipped 2 resource(s) because an earlier request failed:")
+    }
+
+    void 'test a topic without a result is reported as failed instead of applied'() {
+        setup:
+        StubKafkaService kafkaService = new StubKafkaService({ String name ->
+            name == "topic-b" ? null : CompletableFuture.completedFuture(null)
+        })
+        ApplyManager applyManager = new ApplyManager(buildManagerConfig(2, 1), kafkaService)
+
+        when:
+        applyManager.applyTopics(PlanSource.of(buildPlan(["topic-a", "topic-b", "topic-c"], [])))
+
+        then:
+        KafkaExecutionException ex = thrown(KafkaExecutionException)
+        ex.exceptionMessage.readLines() == [
+                "topic-b: java.lang.IllegalStateException: No admin request was sent for topic-b",
+                "topic-c: Not applied because an earlier request failed"
+        ]
+        kafkaService.createdBatches == [["topic-a", "topic-b"]]
+        out.toString().count("Successfully applied.") == 1
+    }
+
+    private List<String> getPrintedOrder(List<String> names) {
+        String output = out.toString()
+        names.each { assert output.contains(it) }
+        return names.sort(false) { output.indexOf(it) }
+    }
+
+    private static DesiredPlan buildPlan(List<String> names, List<String> unchanged) {
+        DesiredPlan.Builder builder = new DesiredPlan.Builder()
+        names.each {
+            builder.addTopicPlans(new TopicPlan.Builder()
+                    .setName(it)
+                    .setAction(unchanged.contains(it) ? PlanAction.NO_CHANGE : PlanAction.ADD)
+                    .setTopicDetails(new TopicDetails.Builder().setPartitions(1).setReplication(1).build())
+                    .build())
+        }
+        return builder.build()
+    }
+
+    private static ManagerConfig buildManagerConfig(int batchSize, int maxInFlightRequests) {
+        return new ManagerConfig.Builder()
+                .setVerboseRequested(false)
+                .setDeleteDisabled(false)
+                .setIncludeUnchangedEnabled(false)
+                .setSkipAclsDisabled(false)
+                .setSkipTopicsDisabled(false)
+                .setManagedPrincipalsOnly(false)
+                .setFullPlanRequested(false)
+                .setStateFile(new File("state.yaml"))
+                .setBatchSize(batchSize)
+                .setMaxInFlightRequests(maxInFlightRequests)
+                .build()
+    }
+
+    private static class StubKafkaService extends KafkaService {
+        private final Function<String, CompletableFuture<Void>> results
+        private final List<List<String>> createdBatches = Collections.synchronizedList([])
+
+        StubKafkaService(Function<String, CompletableFuture<Void>> results) {
+            super(null)
+            this.results = results
+        }
+
+        @Override
+        Map<String, CompletableFuture<Void>> createTopics(Map<String, TopicDetails> topics) {
+            if (!topics.isEmpty()) {
+                createdBatches.add(topics.keySet().toList())
+            }
+            Map<String, CompletableFuture<Void>> futures = new LinkedHashMap<>()
+            topics.keySet().each {
+                CompletableFuture<Void> future = results.apply(it)
+                if (future != null) {
+                    futures.put(it, future)
+                }
+            }
+            return futures
+        }
+
+        @Override
+        Map<ConfigResource, CompletableFuture<Void>> updateTopicConfigs(Map<ConfigResource, Collection<AlterConfigOp>> configs) {
+            return [:]
+        }
+
+        @Override
+        Map<String, CompletableFuture<Void>> deleteTopics(Collection<String> topicNames) {
+            return [:]
+        }
+    }
+}
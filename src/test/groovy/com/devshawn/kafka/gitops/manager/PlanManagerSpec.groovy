@@ -0,0 +1,133 @@
+package com.devshawn.kafka.gitops.manager
+
+import com.devshawn.kafka.gitops.config.ManagerConfig
+import com.devshawn.kafka.gitops.domain.cluster.ClusterState
+import com.devshawn.kafka.gitops.domain.plan.AclPlan
+import com.devshawn.kafka.gitops.domain.plan.DesiredPlan
+import com.devshawn.kafka.gitops.domain.plan.TopicPlan
+import com.devshawn.kafka.gitops.domain.state.AclDetails
+import com.devshawn.kafka.gitops.domain.state.DesiredState
+import com.devshawn.kafka.gitops.domain.state.TopicDetails
+import com.devshawn.kafka.gitops.enums.PlanAction
+import com.devshawn.kafka.gitops.enums.PlanFormat
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class PlanManagerSpec extends Specification {
+
+    @Unroll
+    void 'test planAcls matches current and desired ACLs - deleteDisabled: #deleteDisabled'() {
+        setup:
+        ClusterState clusterState = new ClusterState.Builder()
+                .addAcls(buildAcl("topic-a", "User:one"), buildAcl("topic-b", "User:two"))
+                .build()
+        DesiredState desiredState = new DesiredState.Builder()
+                .putAcls("service-0", buildAcl("topic-a", "User:one"))
+                .putAcls("service-1", buildAcl("topic-a", "User:one"))
+                .putAcls("service-2", buildAcl("topic-c", "User:one"))
+                .build()
+        PlanManager planManager = new PlanManager(buildManagerConfig(deleteDisabled))
+        DesiredPlan.Builder desiredPlan = new DesiredPlan.Builder()
+
+        when:
+        planManager.planAcls(desiredState, clusterState, desiredPlan)
+
+        then:
+        desiredPlan.build().aclPlans*.name == names
+        desiredPlan.build().aclPlans*.action == actions
+        desiredPlan.build().aclPlans*.aclDetails*.name == topics
+
+        where:
+        deleteDisabled | names                                     | actions                                                   | topics
+        false          | ["service-0", "Unnamed ACL", "service-2"] | [PlanAction.NO_CHANGE, PlanAction.REMOVE, PlanAction.ADD] | ["topic-a", "topic-b", "topic-c"]
+        true           | ["service-0", "service-2"]                | [PlanAction.NO_CHANGE, PlanAction.ADD]                    | ["topic-a", "topic-c"]
+    }
+
+    void 'test planTopics compares dynamic configs from the cluster state'() {
+        setup:
+        ClusterState clusterState = new ClusterState.Builder()
+                .addTopics("topic-a", "topic-b")
+                .putTopicConfigs("topic-a", ["retention.ms": "1000", "cleanup.policy": "compact"])
+                .build()
+        DesiredState desiredState = new DesiredState.Builder()
+                .putTopics("topic-a", new TopicDetails.Builder().setPartitions(1).setReplication(1).putConfigs("retention.ms", "2000").build())
+                .putTopics("topic-c", new TopicDetails.Builder().setPartitions(1).setReplication(1).build())
+                .build()
+        PlanManager planManager = new PlanManager(buildManagerConfig(false))
+        DesiredPlan.Builder desiredPlan = new DesiredPlan.Builder()
+
+        when:
+        planManager.planTopics(desiredState, clusterState, desiredPlan)
+        DesiredPlan plan = desiredPlan.build()
+
+        then:
+        plan.topicPlans*.name == ["topic-a", "topic-c", "topic-b"]
+        plan.topicPlans*.action == [PlanAction.UPDATE, PlanAction.ADD, PlanAction.REMOVE]
+        plan.topicPlans[0].topicConfigPlans.collectEntries { [it.key, it.action] } == ["retention.ms": PlanAction.UPDATE, "cleanup.policy": PlanAction.REMOVE]
+    }
+
+    @Unroll
+    void 'test plan files are streamed back entry by entry - format: #format'() {
+        setup:
+        File planFile = File.createTempFile("plan", ".json")
+        planFile.deleteOnExit()
+        ManagerConfig managerConfig = new ManagerConfig.Builder().mergeFrom(buildManagerConfig(false))
+                .setPlanFile(planFile)
+                .setPlanFormat(format)
+                .build()
+        PlanManager planManager = new PlanManager(managerConfig)
+        DesiredPlan desiredPlan = new DesiredPlan.Builder()
+                .addTopicPlans(new TopicPlan.Builder().setName("topic-a").setAction(PlanAction.NO_CHANGE).build())
+                .addTopicPlans(new TopicPlan.Builder().setName("topic-b").setAction(PlanAction.REMOVE).build())
+                .addAclPlans(new AclPlan.Builder().setName("service-0").setAclDetails(buildAcl("topic-a", "User:one")).setAction(PlanAction.ADD).build())
+                .build()
+        List<TopicPlan> topicPlans = []
+        List<AclPlan> aclPlans = []
+
+        when:
+        planManager.writePlanToFile(desiredPlan)
+        planManager.readPlanFromFile().forEach({ topicPlans.add(it) }, { aclPlans.add(it) })
+
+        then:
+        topicPlans == [desiredPlan.topicPlans[1]]
+        aclPlans == desiredPlan.aclPlans
+
+        where:
+        format << PlanFormat.values()
+    }
+
+    void 'test ACL details read from bindings equal the desired ACL details'() {
+        setup:
+        AclDetails aclDetails = buildAcl("topic-a", "User:one")
+
+        expect:
+        aclDetails == AclDetails.fromAclBinding(aclDetails.toAclBinding())
+        aclDetails.hashCode() == AclDetails.fromAclBinding(aclDetails.toAclBinding()).hashCode()
+        aclDetails != buildAcl("topic-a", "User:two")
+    }
+
+    private static AclDetails buildAcl(String topic, String principal) {
+        return new AclDetails.Builder()
+                .setName(topic)
+                .setType("TOPIC")
+                .setPattern("LITERAL")
+                .setPrincipal(principal)
+                .setOperation("READ")
+                .build()
+    }
+
+    private static ManagerConfig buildManagerConfig(boolean deleteDisabled) {
+        return new ManagerConfig.Builder()
+                .setVerboseRequested(false)
+                .setDeleteDisabled(deleteDisabled)
+                .setIncludeUnchangedEnabled(false)
+                .setSkipAclsDisabled(false)
+                .setSkipTopicsDisabled(false)
+                .setManagedPrincipalsOnly(false)
+                .setFullPlanRequested(false)
+                .setStateFile(new File("state.yaml"))
+                .setBatchSize(500)
+                .setMaxInFlightRequests(5)
+                .build()
+    }
+}
@@ -0,0 +1,116 @@
+package com.devshawn.kafka.gitops.service
+
+import org.apache.kafka.common.KafkaException
+import org.apache.kafka.common.KafkaFuture
+import org.apache.kafka.common.errors.LeaderNotAvailableException
+import org.apache.kafka.common.errors.ThrottlingQuotaExceededException
+import org.apache.kafka.common.errors.TimeoutException
+import org.apache.kafka.common.errors.TopicExistsException
+import org.apache.kafka.common.internals.KafkaFutureImpl
+import spock.lang.Specification
+
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.TimeUnit
+
+class AdminRequestRetrierSpec extends Specification {
+
+    void 'test only the throttled subset of a batch is retried'() {
+        setup:
+        AdminRequestRetrier retrier = new AdminRequestRetrier(3, 1L, 10L)
+        List<Collection<String>> requests = []
+
+        when:
+        def results = retrier.submit(["topic-a", "topic-b"]) { Collection<String> batch ->
+            requests.add(new ArrayList<>(batch))
+            batch.collectEntries { topic ->
+                [topic, requests.size() == 1 && topic == "topic-b" ? failed(new ThrottlingQuotaExceededException(20, "throttled")) : KafkaFuture.completedFuture(null)]
+            }
+        }
+        results.values()*.get(5, TimeUnit.SECONDS)
+
+        then:
+        requests == [["topic-a", "topic-b"], ["topic-b"]]
+        retrier.retryCount == 1
+        retrier.throttledMillis == 20L
+    }
+
+    void 'test non-retriable errors fail without a retry'() {
+        setup:
+        AdminRequestRetrier retrier = new AdminRequestRetrier(3, 1L, 10L)
+        int requests = 0
+
+        when:
+        def results = retrier.submit(["topic-a"]) { Collection<String> batch ->
+            requests++
+            ["topic-a": failed(new TopicExistsException("exists"))]
+        }
+        results["topic-a"].get(5, TimeUnit.SECONDS)
+
+        then:
+        ExecutionException ex = thrown()
+        ex.cause instanceof TopicExistsException
+        requests == 1
+        retrier.retryCount == 0
+    }
+
+    void 'test retriable errors that are not caused by the request fail without a retry'() {
+        setup:
+        AdminRequestRetrier retrier = new AdminRequestRetrier(3, 1L, 10L)
+        int requests = 0
+
+        when:
+        def results = retrier.submit(["topic-a"]) { Collection<String> batch ->
+            requests++
+            ["topic-a": failed(new LeaderNotAvailableException("no leader"))]
+        }
+        results["topic-a"].get(5, TimeUnit.SECONDS)
+
+        then:
+        ExecutionException ex = thrown()
+        ex.cause instanceof LeaderNotAvailableException
+        requests == 1
+        retrier.retryCount == 0
+    }
+
+    void 'test an already applied error on a retry counts as success'() {
+        setup:
+        AdminRequestRetrier retrier = new AdminRequestRetrier(3, 1L, 10L)
+        int requests = 0
+
+        when:
+        def results = retrier.submit(["topic-a"], { Collection<String> batch ->
+            requests++
+            ["topic-a": failed(requests == 1 ? new TimeoutException("timed out") : new TopicExistsException("exists"))]
+        }, { it instanceof TopicExistsException })
+        results["topic-a"].get(5, TimeUnit.SECONDS)
+
+        then:
+        noExceptionThrown()
+        requests == 2
+        retrier.retryCount == 1
+    }
+
+    void 'test a resource without a response fails'() {
+        setup:
+        AdminRequestRetrier retrier = new AdminRequestRetrier(3, 1L, 10L)
+
+        when:
+        def results = retrier.submit(["topic-a", "topic-b"]) { Collection<String> batch ->
+            ["topic-a": KafkaFuture.completedFuture(null)]
+        }
+        results["topic-a"].get(5, TimeUnit.SECONDS)
+        results["topic-b"].get(5, TimeUnit.SECONDS)
+
+        then:
+        ExecutionException ex = thrown()
+        ex.cause instanceof KafkaException
+        ex.cause.message == "The admin request returned no result for topic-b"
+        retrier.retryCount == 0
+    }
+
+    private static KafkaFuture<Void> failed(Throwable error) {
+        KafkaFutureImpl<Void> future = new KafkaFutureImpl<>()
+        future.completeExceptionally(error)
+        return future
+    }
+}
@@ -0,0 +1,53 @@
+package com.devshawn.kafka.gitops.service
+
+import com.devshawn.kafka.gitops.domain.cluster.ClusterState
+import com.devshawn.kafka.gitops.domain.state.AclDetails
+import com.devshawn.kafka.gitops.exception.ReadSnapshotInputException
+import com.fasterxml.jackson.databind.ObjectMapper
+import spock.lang.Specification
+import spock.lang.TempDir
+
+class ClusterSnapshotServiceSpec extends Specification {
+
+    @TempDir
+    File tempDir
+
+    ClusterSnapshotService clusterSnapshotService = new ClusterSnapshotService(new ObjectMapper())
+
+    void 'test snapshot round trip'() {
+        setup:
+        File snapshotFile = new File(tempDir, "snapshot.json")
+        ClusterState clusterState = new ClusterState.Builder()
+                .addTopics("topic-a", "topic-b")
+                .putTopicConfigs("topic-a", ["retention.ms": "1000"])
+                .addAcls(new AclDetails.Builder()
+                        .setName("topic-a")
+                        .setType("TOPIC")
+                        .setPattern("LITERAL")
+                        .setPrincipal("User:one")
+                        .setHost("*")
+                        .setOperation("READ")
+                        .setPermission("ALLOW")
+                        .build())
+                .build()
+
+        when:
+        clusterSnapshotService.writeSnapshot(snapshotFile, clusterState)
+
+        then:
+        clusterSnapshotService.readSnapshot(snapshotFile) == clusterState
+    }
+
+    void 'test unsupported snapshot version is rejected'() {
+        setup:
+        File snapshotFile = new File(tempDir, "snapshot.json")
+        snapshotFile.text = '{"version":99,"createdAt":0,"state":{"topics":[],"topicConfigs":{},"acls":[]}}'
+
+        when:
+        clusterSnapshotService.readSnapshot(snapshotFile)
+
+        then:
+        ReadSnapshotInputException ex = thrown()
+        ex.message == "Error reading cluster snapshot from file: Unsupported snapshot version 99; please run the snapshot command again."
+    }
+}
@@ -0,0 +1,114 @@
+package com.devshawn.kafka.gitops.service
+
+import com.devshawn.kafka.gitops.domain.confluent.ServiceAccount
+import com.devshawn.kafka.gitops.exception.ConfluentCloudException
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.sun.net.httpserver.HttpExchange
+import com.sun.net.httpserver.HttpServer
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+
+class ConfluentCloudApiServiceSpec extends Specification {
+
+    HttpServer server
+    URI apiUrl
+    List<String> requests = Collections.synchronizedList([])
+    String next
+
+    void setup() {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0)
+        apiUrl = URI.create("http://localhost:${server.address.port}")
+        next = "${apiUrl}/iam/v2/service-accounts?page_size=100&page_token=next"
+        server.createContext("/iam/v2/service-accounts") { HttpExchange exchange ->
+            requests.add("${exchange.requestMethod} ${exchange.requestURI}".toString())
+            if (exchange.requestHeaders.getFirst("Authorization") != "Basic " + Base64.encoder.encodeToString("key:secret".bytes)) {
+                respond(exchange, 401, '{"errors":[{"status":"401"}]}')
+            } else if (exchange.requestMethod == "POST") {
+                Map body = new ObjectMapper().readValue(exchange.requestBody, Map)
+                respond(exchange, 201, """{"id":"sa-3","display_name":"${body.display_name}","description":"${body.description}"}""")
+            } else if (exchange.requestURI.query.contains("page_token=next")) {
+                respond(exchange, 200, '{"data":[{"id":"sa-2","display_name":"user-bob"}],"metadata":{}}')
+            } else {
+                respond(exchange, 200, """{"data":[{"id":"sa-1","display_name":"service-a"}],"metadata":{"next":"${next}"}}""")
+            }
+        }
+        server.start()
+    }
+
+    void cleanup() {
+        server.stop(0)
+    }
+
+    void 'test service accounts are listed across pages'() {
+        setup:
+        ConfluentCloudApiService service = new ConfluentCloudApiService(new ObjectMapper(), apiUrl, "key", "secret")
+
+        when:
+        List<ServiceAccount> serviceAccounts = service.getServiceAccounts()
+
+        then:
+        serviceAccounts*.id == ["sa-1", "sa-2"]
+        serviceAccounts*.name == ["service-a", "user-bob"]
+        requests == ["GET /iam/v2/service-accounts?page_size=100", "GET /iam/v2/service-accounts?page_size=100&page_token=next"]
+    }
+
+    void 'test relative pagination links are resolved against the API url'() {
+        setup:
+        next = "/iam/v2/service-accounts?page_size=100&page_token=next"
+        ConfluentCloudApiService service = new ConfluentCloudApiService(new ObjectMapper(), apiUrl, "key", "secret")
+
+        when:
+        List<ServiceAccount> serviceAccounts = service.getServiceAccounts()
+
+        then:
+        serviceAccounts*.id == ["sa-1", "sa-2"]
+        requests == ["GET /iam/v2/service-accounts?page_size=100", "GET /iam/v2/service-accounts?page_size=100&page_token=next"]
+    }
+
+    void 'test pagination links to another origin are not followed'() {
+        setup:
+        next = "https://example.com/iam/v2/service-accounts?page_size=100&page_token=next"
+        ConfluentCloudApiService service = new ConfluentCloudApiService(new ObjectMapper(), apiUrl, "key", "secret")
+
+        when:
+        service.getServiceAccounts()
+
+        then:
+        ConfluentCloudException ex = thrown(ConfluentCloudException)
+        ex.message == "Confluent Cloud returned a pagination link outside of ${apiUrl}: ${next}"
+        requests == ["GET /iam/v2/service-accounts?page_size=100"]
+    }
+
+    void 'test user service accounts are created with a prefixed name'() {
+        setup:
+        ConfluentCloudApiService service = new ConfluentCloudApiService(new ObjectMapper(), apiUrl, "key", "secret")
+
+        when:
+        ServiceAccount serviceAccount = service.createServiceAccount("alice", true)
+
+        then:
+        serviceAccount.id == "sa-3"
+        serviceAccount.name == "user-alice"
+        requests == ["POST /iam/v2/service-accounts"]
+    }
+
+    void 'test rejected requests throw a ConfluentCloudException'() {
+        setup:
+        ConfluentCloudApiService service = new ConfluentCloudApiService(new ObjectMapper(), apiUrl, "key", "wrong")
+
+        when:
+        service.getServiceAccounts()
+
+        then:
+        ConfluentCloudException ex = thrown(ConfluentCloudException)
+        ex.message == "There was an error listing Confluent Cloud service accounts. Is the Cloud API key valid?"
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8)
+        exchange.responseHeaders.add("Content-Type", "application/json")
+        exchange.sendResponseHeaders(status, bytes.length)
+        exchange.responseBody.withCloseable { it.write(bytes) }
+    }
+}
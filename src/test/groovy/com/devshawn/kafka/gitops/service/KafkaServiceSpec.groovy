@@ -0,0 +1,81 @@
+package com.devshawn.kafka.gitops.service
+
+import com.devshawn.kafka.gitops.domain.state.TopicDetails
+import org.apache.kafka.clients.admin.AdminClient
+import org.apache.kafka.clients.admin.CreateTopicsOptions
+import org.apache.kafka.clients.admin.CreateTopicsResult
+import org.apache.kafka.clients.admin.DeleteTopicsOptions
+import org.apache.kafka.clients.admin.DeleteTopicsResult
+import org.apache.kafka.common.KafkaFuture
+import org.apache.kafka.common.errors.ThrottlingQuotaExceededException
+import org.apache.kafka.common.internals.KafkaFutureImpl
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class KafkaServiceSpec extends Specification {
+
+    void 'test createTopics hands quota violations to the retrier'() {
+        setup:
+        AdminClient adminClient = Mock(AdminClient)
+        KafkaService kafkaService = new KafkaService(null, adminClient)
+        TopicDetails topicDetails = new TopicDetails.Builder().setPartitions(1).setReplication(1).build()
+
+        when:
+        def results = kafkaService.createTopics(["topic-a": topicDetails])
+        results["topic-a"].get(5, TimeUnit.SECONDS)
+
+        then:
+        1 * adminClient.createTopics(_, { CreateTopicsOptions it -> !it.shouldRetryOnQuotaViolation() }) >>
+                new CreateTopicsResult(["topic-a": failed(new ThrottlingQuotaExceededException(20, "throttled"))])
+        1 * adminClient.createTopics(_, { CreateTopicsOptions it -> !it.shouldRetryOnQuotaViolation() }) >>
+                new CreateTopicsResult(["topic-a": KafkaFuture.completedFuture(null)])
+        kafkaService.retryCount == 1
+        kafkaService.throttledMillis == 20L
+    }
+
+    void 'test deleteTopics hands quota violations to the retrier'() {
+        setup:
+        AdminClient adminClient = Mock(AdminClient)
+        KafkaService kafkaService = new KafkaService(null, adminClient)
+
+        when:
+        def results = kafkaService.deleteTopics(["topic-a"])
+        results["topic-a"].get(5, TimeUnit.SECONDS)
+
+        then:
+        1 * adminClient.deleteTopics(_, { DeleteTopicsOptions it -> !it.shouldRetryOnQuotaViolation() }) >>
+                DeleteTopicsResult.ofTopicNames(["topic-a": failed(new ThrottlingQuotaExceededException(20, "throttled"))])
+        1 * adminClient.deleteTopics(_, { DeleteTopicsOptions it -> !it.shouldRetryOnQuotaViolation() }) >>
+                DeleteTopicsResult.ofTopicNames(["topic-a": KafkaFuture.completedFuture(null)])
+        kafkaService.retryCount == 1
+        kafkaService.throttledMillis == 20L
+    }
+
+    void 'test the first response on the admin client is timed'() {
+        setup:
+        AdminClient adminClient = Mock(AdminClient)
+        KafkaService kafkaService = new KafkaService(null, adminClient)
+        KafkaFutureImpl<Void> response = new KafkaFutureImpl<>()
+        adminClient.deleteTopics(_, _) >> DeleteTopicsResult.ofTopicNames(["topic-a": response])
+
+        when:
+        def results = kafkaService.deleteTopics(["topic-a"])
+
+        then:
+        !kafkaService.firstResponseMillis.present
+
+        when:
+        response.complete(null)
+        results["topic-a"].get(5, TimeUnit.SECONDS)
+
+        then:
+        kafkaService.firstResponseMillis.present
+    }
+
+    private static <T> KafkaFuture<T> failed(Throwable error) {
+        KafkaFutureImpl<T> future = new KafkaFutureImpl<>()
+        future.completeExceptionally(error)
+        return future
+    }
+}
@@ -0,0 +1,127 @@
+package com.devshawn.kafka.gitops.service
+
+import com.devshawn.kafka.gitops.domain.state.DesiredStateFile
+import com.devshawn.kafka.gitops.exception.ValidationException
+import spock.lang.Specification
+import spock.lang.TempDir
+import spock.lang.Unroll
+
+class ParserServiceSpec extends Specification {
+
+    @TempDir
+    File directory
+
+    @Unroll
+    void 'test external topic files are resolved - #pattern'() {
+        setup:
+        writeTopics("topics.yaml", "topic-a")
+        writeTopics("topics/topic-b.yaml", "topic-b")
+        writeTopics("topics/topic-c.yml", "topic-c")
+        writeTopics("topics/nested/topic-d.yaml", "topic-d")
+        write("topics/README.md", "topics:\n  not-a-topic:\n    partitions: 1\n")
+        ParserService parserService = new ParserService(writeStateFile(pattern))
+
+        when:
+        DesiredStateFile desiredStateFile = parserService.parseStateFile()
+
+        then:
+        desiredStateFile.topics.keySet() == topics as Set
+        topics.every { parserService.getSourceFile("topics", it).isPresent() }
+
+        where:
+        pattern                  | topics
+        "topics.yaml"            | ["topic-a"]
+        "topics"                 | ["topic-b", "topic-c", "topic-d"]
+        "topics/*.yaml"          | ["topic-b"]
+        "topics/**/*.yaml"       | ["topic-b", "topic-d"]
+        "topics/**/*.{yaml,yml}" | ["topic-b", "topic-c", "topic-d"]
+    }
+
+    void 'test the source file of an external topic is relative to the state file'() {
+        setup:
+        writeTopics("topics/nested/topic-d.yaml", "topic-d")
+        ParserService parserService = new ParserService(writeStateFile("topics/**/*.yaml"))
+
+        when:
+        parserService.parseStateFile()
+
+        then:
+        parserService.getSourceFile("topics", "topic-d") == Optional.of("topics/nested/topic-d.yaml")
+        parserService.getSourceFile("topics", "topic-x") == Optional.empty()
+    }
+
+    void 'test a topic defined in two external files is rejected'() {
+        setup:
+        writeTopics("topics/a.yaml", "topic-a")
+        writeTopics("topics/b.yaml", "topic-a")
+        ParserService parserService = new ParserService(writeStateFile("topics"))
+
+        when:
+        parserService.parseStateFile()
+
+        then:
+        ValidationException ex = thrown(ValidationException)
+        ex.message == "Duplicate definition of topics -> topic-a in 'topics/a.yaml' and 'topics/b.yaml'."
+    }
+
+    void 'test an external file replaces a topic of the same name in the state file'() {
+        setup:
+        writeTopics("topics.yaml", "topic-a", 12)
+        File stateFile = write("state.yaml", """settings:
+  files:
+    topics: topics.yaml
+topics:
+  topic-a:
+    partitions: 1
+    replication: 1
+""")
+        ParserService parserService = new ParserService(stateFile)
+
+        when:
+        DesiredStateFile desiredStateFile = parserService.parseStateFile()
+
+        then:
+        desiredStateFile.topics["topic-a"].partitions == 12
+        parserService.getSourceFile("topics", "topic-a") == Optional.of("topics.yaml")
+    }
+
+    void 'test a pattern without matches is rejected'() {
+        setup:
+        ParserService parserService = new ParserService(writeStateFile("topics/*.yaml"))
+
+        when:
+        parserService.parseStateFile()
+
+        then:
+        ValidationException ex = thrown(ValidationException)
+        ex.message == "Topics file pattern 'topics/*.yaml' did not match any files."
+    }
+
+    void 'test errors in an external file name the file'() {
+        setup:
+        write("topics/invalid.yaml", "topics:\n  topic-a:\n    replication: 1\n")
+        ParserService parserService = new ParserService(writeStateFile("topics"))
+
+        when:
+        parserService.parseStateFile()
+
+        then:
+        ValidationException ex = thrown(ValidationException)
+        ex.message.endsWith("(file: topics/invalid.yaml)")
+    }
+
+    private File writeStateFile(String topicsPattern) {
+        return write("state.yaml", "settings:\n  files:\n    topics: \"${topicsPattern}\"\n")
+    }
+
+    private File writeTopics(String path, String topic, int partitions = 1) {
+        return write(path, "topics:\n  ${topic}:\n    partitions: ${partitions}\n    replication: 1\n")
+    }
+
+    private File write(String path, String content) {
+        File file = new File(directory, path)
+        file.parentFile.mkdirs()
+        file.text = content
+        return file
+    }
+}
@@ -0,0 +1,71 @@
+package com.devshawn.kafka.gitops.service
+
+import com.devshawn.kafka.gitops.config.ManagerConfig
+import com.devshawn.kafka.gitops.domain.cache.PlanCache
+import com.devshawn.kafka.gitops.domain.cluster.ClusterState
+import com.devshawn.kafka.gitops.domain.plan.DesiredPlan
+import com.devshawn.kafka.gitops.domain.plan.TopicPlan
+import com.devshawn.kafka.gitops.domain.state.DesiredState
+import com.devshawn.kafka.gitops.domain.state.TopicDetails
+import com.devshawn.kafka.gitops.enums.PlanAction
+import com.fasterxml.jackson.databind.ObjectMapper
+import spock.lang.Specification
+import spock.lang.TempDir
+
+class PlanCacheServiceSpec extends Specification {
+
+    @TempDir
+    File cacheDirectory
+
+    void 'test in-sync topics are cached until their configs or topic id change'() {
+        setup:
+        DesiredState desiredState = buildDesiredState("1000")
+        ClusterState clusterState = new ClusterState.Builder()
+                .addTopics("topic-a")
+                .putTopicIds("topic-a", "id-a")
+                .putTopicConfigs("topic-a", ["retention.ms": "1000"])
+                .build()
+        DesiredPlan desiredPlan = new DesiredPlan.Builder()
+                .addTopicPlans(new TopicPlan.Builder().setName("topic-a").setAction(PlanAction.NO_CHANGE).build())
+                .build()
+        new PlanCacheService(buildManagerConfig(false), new ObjectMapper()).save(desiredState, clusterState, desiredPlan)
+
+        when:
+        PlanCacheService planCacheService = new PlanCacheService(buildManagerConfig(false), new ObjectMapper())
+        PlanCache planCache = planCacheService.load()
+
+        then:
+        planCacheService.isTopicConfigCached(planCache, desiredState).test("topic-a", "id-a")
+        !planCacheService.isTopicConfigCached(planCache, desiredState).test("topic-a", "id-b")
+        !planCacheService.isTopicConfigCached(planCache, buildDesiredState("2000")).test("topic-a", "id-a")
+        planCacheService.applyCache(planCache, desiredState, new ClusterState.Builder().addTopics("topic-a").putTopicIds("topic-a", "id-a").build())
+                .topicConfigs == ["topic-a": ["retention.ms": "1000"]]
+
+        and:
+        new PlanCacheService(buildManagerConfig(true), new ObjectMapper()).load().topics.isEmpty()
+        new PlanCacheService(buildManagerConfig(false, false), new ObjectMapper()).load().topics.isEmpty()
+    }
+
+    private static DesiredState buildDesiredState(String retention) {
+        return new DesiredState.Builder()
+                .putTopics("topic-a", new TopicDetails.Builder().setPartitions(1).setReplication(1).putConfigs("retention.ms", retention).build())
+                .build()
+    }
+
+    private ManagerConfig buildManagerConfig(boolean fullPlanRequested, boolean configCacheTrusted = true) {
+        return new ManagerConfig.Builder()
+                .setVerboseRequested(false)
+                .setDeleteDisabled(false)
+                .setIncludeUnchangedEnabled(false)
+                .setSkipAclsDisabled(false)
+                .setSkipTopicsDisabled(false)
+                .setManagedPrincipalsOnly(false)
+                .setFullPlanRequested(fullPlanRequested)
+                .setConfigCacheTrusted(configCacheTrusted)
+                .setStateFile(new File("state.yaml"))
+                .setCacheDirectory(cacheDirectory)
+                .setBatchSize(500)
+                .setMaxInFlightRequests(5)
+                .build()
+    }
+}
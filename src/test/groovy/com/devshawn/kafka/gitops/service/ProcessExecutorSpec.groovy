@@ -0,0 +1,52 @@
+package com.devshawn.kafka.gitops.service
+
+import com.devshawn.kafka.gitops.domain.process.ProcessResult
+import spock.lang.Requires
+import spock.lang.Specification
+
+import java.time.Duration
+
+@Requires({ new File("/bin/sh").exists() })
+class ProcessExecutorSpec extends Specification {
+
+    void 'test stdout, stderr and exit code are captured'() {
+        setup:
+        ProcessExecutor processExecutor = new ProcessExecutor(Duration.ofSeconds(10), 1024)
+
+        when:
+        ProcessResult result = processExecutor.execute(["/bin/sh", "-c", "echo out; echo err >&2; exit 3"])
+
+        then:
+        result.exitCode == 3
+        !result.success
+        result.stdout == "out\n"
+        result.stderr == "err\n"
+        !result.truncated
+    }
+
+    void 'test output beyond the limit is drained and discarded'() {
+        setup:
+        ProcessExecutor processExecutor = new ProcessExecutor(Duration.ofSeconds(10), 16)
+
+        when:
+        ProcessResult result = processExecutor.execute(["/bin/sh", "-c", "head -c 1000000 /dev/zero | tr '\\0' a >&2; echo done"])
+
+        then:
+        result.success
+        result.stdout == "done\n"
+        result.stderr == "a" * 16
+        result.truncated
+    }
+
+    void 'test processes running past the deadline are killed'() {
+        setup:
+        ProcessExecutor processExecutor = new ProcessExecutor(Duration.ofMillis(200), 1024)
+
+        when:
+        processExecutor.execute(["/bin/sh", "-c", "sleep 30"])
+
+        then:
+        IOException ex = thrown(IOException)
+        ex.message == "/bin/sh did not finish within 200 ms."
+    }
+}
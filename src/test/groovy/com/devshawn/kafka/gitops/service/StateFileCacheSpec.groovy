@@ -0,0 +1,74 @@
+package com.devshawn.kafka.gitops.service
+
+import com.devshawn.kafka.gitops.domain.state.DesiredStateFile
+import com.devshawn.kafka.gitops.domain.state.TopicDetails
+import com.devshawn.kafka.gitops.util.HelperUtil
+import com.devshawn.kafka.gitops.util.MapperUtil
+import spock.lang.Specification
+import spock.lang.TempDir
+
+class StateFileCacheSpec extends Specification {
+
+    @TempDir
+    File directory
+
+    void 'test an unchanged state file is read from the cache'() {
+        setup:
+        File stateFile = writeStateFile("topic-a")
+        File cacheDirectory = new File(directory, "cache")
+        new ParserService(stateFile, cacheDirectory).parseStateFile()
+        DesiredStateFile cached = new DesiredStateFile.Builder()
+                .putTopics("topic-from-cache", new TopicDetails.Builder().setPartitions(1).setReplication(1).build())
+                .build()
+        getEntry(cacheDirectory, stateFile).bytes = MapperUtil.getSmileMapper().writeValueAsBytes(cached)
+
+        when:
+        DesiredStateFile desiredStateFile = new ParserService(stateFile, cacheDirectory).parseStateFile()
+
+        then:
+        desiredStateFile == cached
+    }
+
+    void 'test a changed state file is parsed again'() {
+        setup:
+        File stateFile = writeStateFile("topic-a")
+        File cacheDirectory = new File(directory, "cache")
+        new ParserService(stateFile, cacheDirectory).parseStateFile()
+        File firstEntry = getEntry(cacheDirectory, stateFile)
+        writeStateFile("topic-b")
+
+        when:
+        DesiredStateFile desiredStateFile = new ParserService(stateFile, cacheDirectory).parseStateFile()
+
+        then:
+        desiredStateFile.topics.keySet() == ["topic-b"] as Set
+        firstEntry.exists()
+        getEntry(cacheDirectory, stateFile).exists()
+        getEntry(cacheDirectory, stateFile) != firstEntry
+    }
+
+    void 'test a corrupt cache entry falls back to parsing the state file'() {
+        setup:
+        File stateFile = writeStateFile("topic-a")
+        File cacheDirectory = new File(directory, "cache")
+        DesiredStateFile parsed = new ParserService(stateFile, cacheDirectory).parseStateFile()
+        getEntry(cacheDirectory, stateFile).text = "not smile"
+
+        when:
+        DesiredStateFile desiredStateFile = new ParserService(stateFile, cacheDirectory).parseStateFile()
+
+        then:
+        desiredStateFile == parsed
+        MapperUtil.getSmileMapper().readValue(getEntry(cacheDirectory, stateFile), DesiredStateFile) == parsed
+    }
+
+    private File writeStateFile(String topic) {
+        File stateFile = new File(directory, "state.yaml")
+        stateFile.text = "topics:\n  ${topic}:\n    partitions: 1\n    replication: 1\n"
+        return stateFile
+    }
+
+    private static File getEntry(File cacheDirectory, File stateFile) {
+        return new File(cacheDirectory, "state-cache/v1-${HelperUtil.sha256(stateFile.bytes)}.smile")
+    }
+}
@@ -0,0 +1,57 @@
+package com.devshawn.kafka.gitops.util
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class PrefixMatcherSpec extends Specification {
+
+    @Unroll
+    void 'test match - #value'() {
+        setup:
+        PrefixMatcher prefixMatcher = new PrefixMatcher(["_confluent", "my-streams-app", "my-stream", "team-a."])
+
+        expect:
+        prefixMatcher.match(value) == Optional.ofNullable(expected)
+
+        where:
+        value                             | expected
+        "_confluent-metrics"              | "_confluent"
+        "my-streams-app-store-changelog"  | "my-stream"
+        "my-stream"                       | "my-stream"
+        "my-strea"                        | null
+        "team-a.orders"                   | "team-a."
+        "team-a"                          | null
+        "team-b.orders"                   | null
+        ""                                | null
+    }
+
+    void 'test empty prefix matches every value'() {
+        setup:
+        PrefixMatcher prefixMatcher = new PrefixMatcher([""])
+
+        expect:
+        prefixMatcher.matches("")
+        prefixMatcher.matches("any-topic")
+    }
+
+    void 'test match counts per prefix'() {
+        setup:
+        PrefixMatcher prefixMatcher = new PrefixMatcher(["a.", "b.", "c."])
+
+        when:
+        ["a.one", "a.two", "b.one", "d.one"].each { prefixMatcher.match(it) }
+
+        then:
+        !prefixMatcher.isEmpty()
+        prefixMatcher.matchCounts == ["a.": 2L, "b.": 1L, "c.": 0L]
+    }
+
+    void 'test empty matcher'() {
+        setup:
+        PrefixMatcher prefixMatcher = new PrefixMatcher([])
+
+        expect:
+        prefixMatcher.isEmpty()
+        !prefixMatcher.matches("topic")
+    }
+}
@@ -0,0 +1,28 @@
+package com.devshawn.kafka.gitops.util
+
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class RateLimiterSpec extends Specification {
+
+    void 'test permits are spaced at the configured rate'() {
+        setup:
+        RateLimiter rateLimiter = new RateLimiter(50)
+        long start = System.nanoTime()
+
+        when:
+        6.times { rateLimiter.acquire() }
+
+        then:
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 100
+    }
+
+    void 'test the rate must be positive'() {
+        when:
+        new RateLimiter(0)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}